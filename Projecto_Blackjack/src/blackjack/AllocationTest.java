@@ -0,0 +1,165 @@
+package blackjack;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ * Checks that a simulation plays its rounds without allocating ( see {@link GameSimulation#playRound()} ).
+ *
+ * Each case is a table simulated with a strategy, with or without a continuous shuffling machine.
+ * The table is warmed up so the JIT compiles the rounds, and then the bytes allocated by the thread
+ * while it plays ROUNDS rounds are measured. The shoe is reshuffled every few dozen rounds, so the
+ * reshuffles are measured with the rounds. The rounds do not allocate when the thread allocates less
+ * than MAXBYTES over all of them: only the few bytes allocated once, by the measure itself or the JIT,
+ * are ignored, while a single object allocated on every reshuffle is well above it.
+ *
+ * The reshuffle of the shoe is also measured on its own, in place ( see {@link Deck#reshuffle()} ) and
+ * by building a new shoe like the game used to, to compare the bytes and the time of both.
+ *
+ * Run with "java blackjack.AllocationTest": the exit status is 1 if any case allocates.
+ *
+ */
+public class AllocationTest {
+
+	/**
+	 * Rounds played before measuring.
+	 */
+	public static final int WARMUP = 200000;
+
+	/**
+	 * Rounds measured.
+	 */
+	public static final int ROUNDS = 1000000;
+
+	/**
+	 * Bytes a case may allocate in total and still be taken as not allocating.
+	 */
+	public static final long MAXBYTES = 64 * 1024;
+
+	/**
+	 * Shoes reshuffled by each way of reshuffling, after dealing three quarters of the shoe.
+	 */
+	public static final int RESHUFFLES = 100000;
+
+	/**
+	 * Strategies of the tables checked, one seat for each strategy.
+	 */
+	private static final String[] STRATEGIES = { "BS" , "HL" , "BS,HL,BS-AF,HL-AF" };
+
+	/**
+	 * Bytes allocated by the thread.
+	 */
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	//***********************************************************************************************
+
+	/**
+	 * Checks every case and exits with status 1 if any of them allocates.
+	 *
+	 * @param args	not used.
+	 */
+	public static void main( String[] args ) {
+		boolean failed = false;
+
+		for ( String strategy : STRATEGIES ) {
+			failed |= !checkRounds( strategy , false );
+			failed |= !checkRounds( strategy , true );
+		}
+		failed |= !checkReshuffle();
+		if ( failed ) {
+			System.out.println("Allocation found");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Plays the rounds of a table and shows the bytes allocated per round.
+	 *
+	 * @param strategy	strategies of the seats.
+	 * @param csm		true to play with a continuous shuffling machine.
+	 * @return			true if the rounds did not allocate.
+	 */
+	private static boolean checkRounds( String strategy , boolean csm ) {
+		String[] args = { "-s" , "1" , "10" , "100000000" , "6" , "75" , "1000000" , strategy , "-seed" , "7" , "-q" };
+		GameSimulation game;
+		long bytes;
+
+		if ( csm ) {
+			args = Arrays.copyOf( args , args.length + 1 );
+			args[args.length - 1] = "-csm";
+		}
+		game = new GameSimulation( new Arguments( args ) );
+
+		game.startGames();
+		for ( int r = 0 ; r < WARMUP ; r++ )
+			game.playRound();
+
+		bytes = allocatedBytes();
+		for ( int r = 0 ; r < ROUNDS && game.gameover != true ; r++ )
+			game.playRound();
+		bytes = allocatedBytes() - bytes;
+
+		System.out.println( strategy + ( csm ? " -csm" : "" ) + "	" + (double) bytes / ROUNDS + " bytes per round" );
+		if ( game.gameover ) {
+			System.out.println("The simulation ended before every round was played");
+			return false;
+		}
+		return bytes < MAXBYTES;
+	}
+
+	/**
+	 * Reshuffles a shoe of 6 decks by building a new one and in place, and shows the bytes allocated
+	 * and the time taken per reshuffle by each. The cards are shuffled at once ( FULL mode ) in both.
+	 *
+	 * @return	true if the reshuffle in place did not allocate.
+	 */
+	private static boolean checkReshuffle() {
+		RandomSource random = new SplitMixRandom( 7 );
+		Deck shoe = new Deck( 6 , random );
+		int dealt = 6 * Deck.DECKSIZE * 3 / 4;
+		long bytes = 0;
+		long time = 0;
+
+		for ( int pass = 0 ; pass < 2 ; pass++ ) {
+			bytes = allocatedBytes();
+			time = System.nanoTime();
+			for ( int r = 0 ; r < RESHUFFLES ; r++ ) {
+				for ( int c = 0 ; c < dealt ; c++ )
+					shoe.retrieveCard();
+				shoe = new Deck( shoe.getShoeSize() , random );
+				shoe.shuffleCards();
+			}
+			time = System.nanoTime() - time;
+			bytes = allocatedBytes() - bytes;
+		}
+		System.out.println( "rebuild	" + (double) bytes / RESHUFFLES + " bytes per reshuffle	" + time / RESHUFFLES + " ns" );
+
+		for ( int pass = 0 ; pass < 2 ; pass++ ) {
+			bytes = allocatedBytes();
+			time = System.nanoTime();
+			for ( int r = 0 ; r < RESHUFFLES ; r++ ) {
+				for ( int c = 0 ; c < dealt ; c++ )
+					shoe.retrieveCard();
+				shoe.reshuffle();
+			}
+			time = System.nanoTime() - time;
+			bytes = allocatedBytes() - bytes;
+		}
+		System.out.println( "in place	" + (double) bytes / RESHUFFLES + " bytes per reshuffle	" + time / RESHUFFLES + " ns" );
+
+		return bytes < MAXBYTES;
+	}
+
+	/**
+	 * Bytes allocated so far by the current thread.
+	 *
+	 * @return	bytes allocated.
+	 */
+	private static long allocatedBytes() {
+		return THREADS.getThreadAllocatedBytes( Thread.currentThread().getId() );
+	}
+
+}
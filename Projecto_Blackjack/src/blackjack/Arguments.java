@@ -10,6 +10,11 @@ package blackjack;
  */
 public class Arguments {
 
+	/**
+	 * Maximum number of seats at a table.
+	 */
+	public static final int MAXSEATS = 7;
+	
 	/**
 	 * Variable to store the mode that we are playing
 	 */
@@ -42,6 +47,10 @@ public class Arguments {
 	 * name of the file with the commands.
 	 */
 	private String cmdFile;
+	/**
+	 * name of the file to write.
+	 */
+	private String outFile;
 	/**
 	 * number of shuffles to perform until ending the simulation.
 	 */
@@ -50,6 +59,43 @@ public class Arguments {
 	 * counting cards strategy to use.
 	 */
 	private String strategy;
+	/**
+	 * counting cards strategy of each seat of the table ( the strategy argument is a comma
+	 * separated list, one strategy per seat ).
+	 */
+	private String[] seatStrategies;
+	/**
+	 * seed used to shuffle the shoe.
+	 */
+	private long seed;
+	/**
+	 * true if the shoe is a continuous shuffling machine.
+	 */
+	private boolean csm;
+	/**
+	 * true if the dealer hits a soft 17.
+	 */
+	private boolean h17;
+	/**
+	 * true if the game should not report its events.
+	 */
+	private boolean quiet;
+	/**
+	 * number of threads of a parallel simulation, 0 for a sequential one.
+	 */
+	private int threads;
+	/**
+	 * number of tables of a floor simulation, 0 for a single table.
+	 */
+	private int tables;
+	/**
+	 * number of tables of a batch simulation, 0 for a single table.
+	 */
+	private int batch;
+	/**
+	 * name of the file with the shoe corpus to replay.
+	 */
+	private String corpusFile;
 	
 	/**
 	 * Stores the input arguments when running the project.
@@ -63,6 +109,7 @@ public class Arguments {
 	 */
 	public Arguments( String[] args ) {
 		this.args = args;
+		this.seed = System.nanoTime();
 		decodeArgs();
 	}
 	
@@ -79,7 +126,7 @@ public class Arguments {
 		 * Interactive mode
 		 */
 		case("-i"):
-			if( this.args.length != 6 ){
+			if( this.args.length < 6 ){
 				System.out.println("ERROR! Incorrect number of arguments. Needs 6 arguments for interactive mode. Ending program...");
 				System.exit(0);
 			}
@@ -89,6 +136,7 @@ public class Arguments {
 			this.balance = Integer.parseInt(this.args[3]);
 			this.shoe = Integer.parseInt(this.args[4]);
 			this.shuffle = Integer.parseInt(this.args[5]);
+			decodeOptions(6);
 			checkForErrors("-i");
 			break;
 		/*
@@ -111,7 +159,7 @@ public class Arguments {
 		 * Simulation mode
 		 */
 		case("-s"):
-			if( this.args.length != 8 ){
+			if( this.args.length < 8 ){
 				System.out.println("ERROR! Incorrect number of arguments. Needs 8 arguments for simulation mode. Ending program...");
 				System.exit(0);
 			}
@@ -123,8 +171,37 @@ public class Arguments {
 			this.shuffle = Integer.parseInt(this.args[5]);
 			this.sNumber = Integer.parseInt(args[6]);
 			this.strategy = this.args[7];
+			this.seatStrategies = this.strategy.split(",");
+			decodeOptions(8);
 			checkForErrors("-s");
 			break;
+		/*
+		 * Convert a shoe file to the binary format
+		 */
+		case("-c"):
+			if( this.args.length != 3 ){
+				System.out.println("ERROR! Incorrect number of arguments. Needs 3 arguments to convert a shoe file. Ending program...");
+				System.exit(0);
+			}
+			this.mode = args[0];
+			this.shoeFile = this.args[1];
+			this.outFile = this.args[2];
+			break;
+		/*
+		 * Write a corpus of shuffled shoes
+		 */
+		case("-k"):
+			if( this.args.length < 4 ){
+				System.out.println("ERROR! Incorrect number of arguments. Needs 4 arguments to write a shoe corpus. Ending program...");
+				System.exit(0);
+			}
+			this.mode = args[0];
+			this.outFile = this.args[1];
+			this.shoe = Integer.parseInt(this.args[2]);
+			this.sNumber = Integer.parseInt(this.args[3]);
+			decodeOptions(4);
+			checkForErrors("-k");
+			break;
 		/*
 		 * Swing mode
 		 */
@@ -138,6 +215,72 @@ public class Arguments {
 		
 	}
 	
+	/**
+	 * Decodes the optional arguments that follow the arguments of the mode.
+	 * 
+	 * 	-seed SEED	seed used to shuffle the shoe.
+	 * 	-csm		the shoe is a continuous shuffling machine.
+	 * 	-h17		the dealer hits a soft 17.
+	 * 	-q		quiet, only the final statistics are shown.
+	 * 	-p N		simulation played in parallel by N threads.
+	 * 	-floor N	simulation of a floor of N tables.
+	 * 	-batch N	simulation of N tables played together by one thread.
+	 * 	-corpus FILE	replay the shoes of a corpus file instead of shuffling.
+	 * 
+	 * @param first	index of the first optional argument.
+	 */
+	public void decodeOptions( int first ){
+		for( int i = first; i < this.args.length; i++ ){
+			switch(this.args[i]){
+			case("-seed"):
+				this.seed = Long.parseLong(optionValue(i++));
+				break;
+			case("-csm"):
+				this.csm = true;
+				break;
+			case("-h17"):
+				this.h17 = true;
+				break;
+			case("-q"):
+				this.quiet = true;
+				break;
+			case("-p"):
+				this.threads = Integer.parseInt(optionValue(i++));
+				if( this.threads < 1 ){
+					System.out.println("Number of threads must be >= 1");
+					System.exit(0);
+				}
+				break;
+			case("-floor"):
+				this.tables = Integer.parseInt(optionValue(i++));
+				break;
+			case("-batch"):
+				this.batch = Integer.parseInt(optionValue(i++));
+				break;
+			case("-corpus"):
+				this.corpusFile = optionValue(i++);
+				break;
+			default:
+				System.out.println("ERROR! Unknown option " + this.args[i] + ". Ending program...");
+				System.exit(0);
+			}
+		}
+	}
+	
+	/**
+	 * Returns the value that follows an optional argument.
+	 * 
+	 * @param i		index of the optional argument.
+	 * @return		value of the optional argument.
+	 */
+	private String optionValue( int i ){
+		if( i+1 >= this.args.length ){
+			System.out.println("ERROR! Option " + this.args[i] + " needs a value. Ending program...");
+			System.exit(0);
+		}
+		return this.args[i+1];
+	}
+	
 	/**
 	 * Getter for mode.
 	 * 
@@ -203,6 +346,14 @@ public class Arguments {
 	public String getCmdFile(){
 		return this.cmdFile;
 	}
+	/**
+	 * Getter for the name of the file to write.
+	 * 
+	 * @return	returns the name of the file to write from the input arguments.
+	 */
+	public String getOutFile(){
+		return this.outFile;
+	}
 	/**
 	 * Getter for the number of shuffles to perform until the end of the simulation.
 	 * 
@@ -219,6 +370,78 @@ public class Arguments {
 	public String getStrategy(){
 		return this.strategy;
 	}
+	/**
+	 * Getter for the counting cards strategy of each seat.
+	 * 
+	 * @return	returns the strategies of the seats, in the order they are dealt.
+	 */
+	public String[] getSeatStrategies(){
+		return this.seatStrategies;
+	}
+	/**
+	 * Getter for the seed used to shuffle the shoe.
+	 * 
+	 * @return	returns the seed given with the -s option, or a seed taken from the clock.
+	 */
+	public long getSeed(){
+		return this.seed;
+	}
+	/**
+	 * Getter for the continuous shuffling machine flag.
+	 * 
+	 * @return	returns true if the -csm option was given.
+	 */
+	public boolean getCSM(){
+		return this.csm;
+	}
+	/**
+	 * Getter for the dealer rule.
+	 * 
+	 * @return	returns true if the -h17 option was given.
+	 */
+	public boolean getH17(){
+		return this.h17;
+	}
+	/**
+	 * Getter for the quiet flag.
+	 * 
+	 * @return	returns true if the -q option was given.
+	 */
+	public boolean getQuiet(){
+		return this.quiet;
+	}
+	/**
+	 * Getter for the number of threads of a parallel simulation.
+	 * 
+	 * @return	returns the value of the -p option, or 0.
+	 */
+	public int getThreads(){
+		return this.threads;
+	}
+	/**
+	 * Getter for the number of tables of a floor simulation.
+	 * 
+	 * @return	returns the value of the -floor option, or 0.
+	 */
+	public int getTables(){
+		return this.tables;
+	}
+	/**
+	 * Getter for the number of tables of a batch simulation.
+	 * 
+	 * @return	returns the value of the -batch option, or 0.
+	 */
+	public int getBatch(){
+		return this.batch;
+	}
+	/**
+	 * Getter for the name of the file with the shoe corpus to replay.
+	 * 
+	 * @return	returns the file given with the -corpus option, or null.
+	 */
+	public String getCorpusFile(){
+		return this.corpusFile;
+	}
 	
 	/**
 	 * Checks if the parameters from the mode running are correct.
@@ -284,8 +507,44 @@ public class Arguments {
 				System.out.println("Shuffle percentage must have a value between 10% and 100%");
 				System.exit(0);
 			}
-			if( this.strategy.equals("BS")==false && this.strategy.equals("BS-AF")==false && this.strategy.equals("HL")==false &&this.strategy.equals("HL-AF")==false ){
-				System.out.println("Wrong strategy combinations. Type BS, HL or AF");
+			if( this.seatStrategies.length > MAXSEATS ){
+				System.out.println("A table has at most " + MAXSEATS + " seats");
+				System.exit(0);
+			}
+			for( String seatStrategy : this.seatStrategies ){
+				if( seatStrategy.equals("BS")==false && seatStrategy.equals("BS-AF")==false && seatStrategy.equals("HL")==false &&seatStrategy.equals("HL-AF")==false ){
+					System.out.println("Wrong strategy combinations. Type BS, HL or AF");
+					System.exit(0);
+				}
+			}
+			if( this.tables < 0 ){
+				System.out.println("Number of tables must be >= 1");
+				System.exit(0);
+			}
+			if( ( this.threads > 0 || this.tables > 0 ) && this.corpusFile != null ){
+				System.out.println("A corpus can not be replayed by a parallel simulation");
+				System.exit(0);
+			}
+			if( this.batch < 0 ){
+				System.out.println("Number of tables must be >= 1");
+				System.exit(0);
+			}
+			if( this.batch > 0 && ( this.threads > 0 || this.tables > 0 || this.corpusFile != null || this.seatStrategies.length > 1 ) ){
+				System.out.println("A batch simulation has one seat per table and can not be combined with -p, -floor or -corpus");
+				System.exit(0);
+			}
+			break;
+		case("-k"):
+			if( this.shoe < 4 || this.shoe > 8 ){
+				System.out.println("Shoe size must be between 4 and 8");
+				System.exit(0);
+			}
+			if( this.sNumber < 1 ){
+				System.out.println("Number of shoes must be >= 1");
+				System.exit(0);
+			}
+			if( this.csm || this.h17 || this.quiet || this.threads != 0 || this.tables != 0 || this.batch != 0 || this.corpusFile != null ){
+				System.out.println("A shoe corpus only takes the -seed SEED option");
 				System.exit(0);
 			}
 			break;
@@ -0,0 +1,714 @@
+package blackjack;
+
+import java.util.NoSuchElementException;
+
+import blackjack.GameBody.Result;
+import blackjack.Strategies.Command;
+
+/**
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ * Simulation of many tables played together by one thread. Instead of one object per table
+ * ( dealer, player, hands, cards, shoe and statistics ), the state of every table is kept in
+ * arrays of primitives indexed by the table: the cards of the shoes, their cursors, the hand
+ * states ( see {@link HandState} ), the counts and the balances.
+ *
+ * The tables advance in lockstep, one phase of a round at a time for every table still playing:
+ * the bets, the first cards, the players' hands, the dealer's hands and the payoffs. Each table
+ * plays by exactly the rules of {@link GameSimulation}, with the decisions taken from the same
+ * {@link Strategies}, and is shuffled by its own random source split from the one of the
+ * simulation in the same order as the tables of a {@link FloorSimulation}. A batch of N tables
+ * therefore plays exactly the same games as a floor of N tables.
+ *
+ * Every table has one seat, and the shoe is shuffled lazily ( or is a continuous shuffling
+ * machine with the -csm option ).
+ *
+ */
+public class BatchSimulation extends GameSimulation {
+
+	/**
+	 * Number of results of a hand ( see {@link GameBody.Result} ).
+	 */
+	private static final int RESULTS = Result.values().length;
+
+	/**
+	 * Results of a hand, indexed by ordinal.
+	 */
+	private static final Result[] RESULT = Result.values();
+
+	/**
+	 * Weights of the counts used by the strategies, indexed by count index.
+	 */
+	private static final int[] HILO = new int[Rank.COUNTS];
+	private static final int[] ACEFIVE = new int[Rank.COUNTS];
+
+	static {
+		for ( int r = 0 ; r < Rank.COUNTS ; r++ ) {
+			HILO[r] = CountingSystem.HILO.getWeight(r);
+			ACEFIVE[r] = CountingSystem.ACEFIVE.getWeight(r);
+		}
+	}
+
+	/**
+	 * [Field] Arguments of the simulation.
+	 */
+	private final Arguments arguments;
+
+	/**
+	 * [Field] Number of tables of the batch.
+	 */
+	private final int numberoftables;
+
+	/**
+	 * [Field] Number of cards of a shoe.
+	 */
+	private final int shoecards;
+
+	/**
+	 * [Field] Input parameter - percentage of shoe played before shuffling.
+	 */
+	private final int shufflepercent;
+
+	/**
+	 * [Field] Number of shuffles each table performs.
+	 */
+	private final int numberOfShuffles;
+
+	/**
+	 * [Field] true if the hands are played with the Hi-Low strategy, false for the Basic strategy.
+	 */
+	private final boolean hilow;
+
+	/**
+	 * [Field] true if the bets follow the Ace-Five strategy.
+	 */
+	private final boolean acefive;
+
+	/**
+	 * [Field] Count index of the cards of the shoes, indexed by table * shoecards + position.
+	 * Cards before the cursor of a table were dealt.
+	 */
+	private byte[] shoe;
+
+	/**
+	 * [Field] Position of the next card of each shoe.
+	 */
+	private int[] cursor;
+
+	/**
+	 * [Field] Cursor of each table when its round started.
+	 */
+	private int[] roundcursor;
+
+	/**
+	 * [Field] Random source of each table.
+	 */
+	private RandomSource[] randoms;
+
+	/**
+	 * [Field] Cards counted, Hi-Low and Ace-Five running counts of each table.
+	 */
+	private int[] cardsplayed;
+	private int[] hilocount;
+	private int[] acefivecount;
+
+	/**
+	 * [Field] Balance and last bet of the player of each table.
+	 */
+	private float[] balance;
+	private int[] bet;
+
+	/**
+	 * [Field] Number of hands each table has room for.
+	 */
+	private int maxhands;
+
+	/**
+	 * [Field] State, count index of the first card and side rules of the player's hands,
+	 * indexed by table * maxhands + hand.
+	 */
+	private int[] handstate;
+	private byte[] firstcard;
+	private byte[] siderules;
+
+	/**
+	 * [Field] Number of hands of the player of each table.
+	 */
+	private int[] numberofhands;
+
+	/**
+	 * [Field] State of the dealer's hand, count index of the up card and of the hole card
+	 * of each table.
+	 */
+	private int[] dealerstate;
+	private byte[] upcard;
+	private byte[] holecard;
+
+	/**
+	 * [Field] true for the tables where the dealer does not play this round.
+	 */
+	private boolean[] stopdealer;
+
+	/**
+	 * [Field] Shuffles performed by each table, and cards dealt since the last shuffle was
+	 * counted by a continuous shuffling machine.
+	 */
+	private int[] shuffles;
+	private int[] csmcards;
+
+	/**
+	 * [Field] Number of hands of each result of each table, indexed by table * RESULTS + ordinal
+	 * of the result, and number of games of each table.
+	 */
+	private int[] results;
+	private int[] games;
+
+	/**
+	 * [Field] Tables still playing, and their number.
+	 */
+	private int[] active;
+	private int numberofactive;
+
+	//***********************************************************************************************
+
+	/**
+	 * Constructor for BatchSimulation.
+	 *
+	 * @param arguments		arguments of the simulation ( the -batch option gives the number of tables ).
+	 */
+	public BatchSimulation( Arguments arguments ) {
+		super( arguments );
+		String strategy = arguments.getSeatStrategies()[0];
+
+		this.arguments = arguments;
+		this.numberoftables = arguments.getBatch();
+		this.shoecards = arguments.getShoe() * Deck.DECKSIZE;
+		this.shufflepercent = arguments.getShuffle();
+		this.numberOfShuffles = arguments.getSNumber();
+		this.hilow = strategy.equals("HL") || strategy.equals("HL-AF");
+		this.acefive = strategy.equals("BS-AF") || strategy.equals("HL-AF");
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Opens the tables, plays them until every table is over and shows the merged statistics,
+	 * the hands played per second and the memory used by each table.
+	 * The balance shown is the initial balance plus what the players won ( or lost ) in every table.
+	 *
+	 * @Overriden Method from GameSimulation.
+	 */
+	public void playGames(){
+
+		long memory;
+		long time;
+
+		memory = FloorSimulation.usedMemory();
+		this.openTables();
+		memory = FloorSimulation.usedMemory() - memory;
+
+		time = System.nanoTime();
+		while ( this.numberofactive > 0 )
+			this.playRound();
+		time = System.nanoTime() - time;
+
+		this.closeTables();
+		this.finishGames();
+
+		System.out.println("Tables	" + this.numberoftables + " ( batch )");
+		System.out.println("Hands/s	" + (long)( this.getPlayerHands() / ( time / 1e9 ) ));
+		System.out.println("Memory	" + memory / this.numberoftables + " bytes per table");
+	}
+
+	/**
+	 * Plays one round on every table still playing, one phase at a time, and removes the
+	 * tables that are over.
+	 *
+	 * @Overriden Method from GameSimulation.
+	 */
+	public void playRound(){
+		int n = this.numberofactive;
+		int[] tables = this.active;
+		int t;
+
+		for ( int k = 0 ; k < n ; k++ )
+			this.placeBet( tables[k] );
+		for ( int k = 0 ; k < n ; k++ )
+			this.dealFirstCards( tables[k] );
+		for ( int k = 0 ; k < n ; k++ )
+			this.playHands( tables[k] );
+		for ( int k = 0 ; k < n ; k++ )
+			if ( !this.stopdealer[tables[k]] )
+				this.playDealer( tables[k] );
+		for ( int k = 0 ; k < n ; k++ )
+			this.payHands( tables[k] );
+
+		this.numberofactive = 0;
+		for ( int k = 0 ; k < n ; k++ ) {
+			t = tables[k];
+			if ( !this.finishRound(t) )
+				tables[this.numberofactive++] = t;
+		}
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Creates the state of every table: a full shoe, shuffled lazily by a random source split from
+	 * the one of the simulation, and a player with the initial balance.
+	 */
+	private void openTables(){
+		int n = this.numberoftables;
+		int position;
+
+		this.shoe = new byte[n * this.shoecards];
+		this.cursor = new int[n];
+		this.roundcursor = new int[n];
+		this.randoms = new RandomSource[n];
+		this.cardsplayed = new int[n];
+		this.hilocount = new int[n];
+		this.acefivecount = new int[n];
+		this.balance = new float[n];
+		this.bet = new int[n];
+		this.maxhands = 4;
+		this.handstate = new int[n * this.maxhands];
+		this.firstcard = new byte[n * this.maxhands];
+		this.siderules = new byte[n * this.maxhands];
+		this.numberofhands = new int[n];
+		this.dealerstate = new int[n];
+		this.upcard = new byte[n];
+		this.holecard = new byte[n];
+		this.stopdealer = new boolean[n];
+		this.shuffles = new int[n];
+		this.csmcards = new int[n];
+		this.results = new int[n * RESULTS];
+		this.games = new int[n];
+		this.active = new int[n];
+
+		for ( int t = 0 ; t < n ; t++ ) {
+			position = t * this.shoecards;
+			for ( int d = 0 ; d < this.arguments.getShoe() ; d++ )
+				for ( int k = 0 ; k < Deck.DECKSIZE ; k++ )
+					this.shoe[position++] = (byte) Card.ofOrdinal(k).getCountIndex();
+			this.randoms[t] = this.random.split();
+			this.balance[t] = this.arguments.getBalance();
+			this.active[t] = t;
+		}
+		this.numberofactive = n;
+	}
+
+	/**
+	 * Adds the results of every table to the statistics of the simulation, table by table.
+	 */
+	private void closeTables(){
+		Statistics table;
+
+		for ( int t = 0 ; t < this.numberoftables ; t++ ) {
+			table = new Statistics( this.statistics.getInicialBalance() , this.statistics );
+			for ( int r = 0 ; r < RESULTS ; r++ )
+				table.addHandStatistics( RESULT[r] , this.results[t*RESULTS + r] );
+			table.addGameStatistics( this.games[t] );
+			this.statistics.merge( table );
+			this.player.setBalance( this.player.getBalance() + this.balance[t] - this.statistics.getInicialBalance() );
+		}
+	}
+
+	/**
+	 * Deals a card from the shoe of a table, picking it at random among the cards left.
+	 *
+	 * @param t		table.
+	 * @return		count index of the card.
+	 */
+	private int dealCard( int t ){
+		int position = t * this.shoecards;
+		int c = this.cursor[t];
+		int j;
+		byte card;
+
+		if ( c == this.shoecards )
+			c = this.reshuffleDiscards(t);
+		j = c + this.randoms[t].nextInt( this.shoecards - c );
+		card = this.shoe[position + j];
+		this.shoe[position + j] = this.shoe[position + c];
+		this.shoe[position + c] = card;
+		this.cursor[t] = c + 1;
+		return card;
+	}
+
+	/**
+	 * Shuffles the discards of a table back into its shoe when it runs out in the middle of
+	 * a round, like {@link Deck#reshuffleDiscards(int)}: the cards of the round are rotated to
+	 * the start of the shoe, the discards stay after them, and the counts start again.
+	 *
+	 * @param t		table.
+	 * @return		new cursor of the table.
+	 */
+	private int reshuffleDiscards( int t ){
+		int position = t * this.shoecards;
+		int inplay = this.cursor[t] - this.roundcursor[t];
+
+		if ( inplay == this.shoecards )
+			throw new NoSuchElementException();
+		this.reverse( position , position + this.cursor[t] );
+		this.reverse( position , position + inplay );
+		this.reverse( position + inplay , position + this.cursor[t] );
+		this.cursor[t] = inplay;
+		this.roundcursor[t] = 0;
+		this.resetCount(t);
+		return inplay;
+	}
+
+	/**
+	 * Reverses the order of the cards of the shoes in positions [from, to).
+	 *
+	 * @param from	first position.
+	 * @param to	position after the last.
+	 */
+	private void reverse( int from , int to ){
+		byte card;
+
+		for ( int i = from , j = to-1 ; i < j ; i++ , j-- ) {
+			card = this.shoe[i];
+			this.shoe[i] = this.shoe[j];
+			this.shoe[j] = card;
+		}
+	}
+
+	/**
+	 * Counts a card seen on a table.
+	 *
+	 * @param t				table.
+	 * @param countindex	count index of the card.
+	 */
+	private void countCard( int t , int countindex ){
+		this.cardsplayed[t]++;
+		this.hilocount[t] += HILO[countindex];
+		this.acefivecount[t] += ACEFIVE[countindex];
+	}
+
+	/**
+	 * Deals a card to a hand of the player of a table and counts it.
+	 *
+	 * @param t		table.
+	 * @param hand	index of the hand on the hand arrays.
+	 */
+	private void hitHand( int t , int hand ){
+		int card = this.dealCard(t);
+
+		this.countCard( t , card );
+		this.handstate[hand] = HandState.next( this.handstate[hand] , card );
+	}
+
+	/**
+	 * Hi-Low true count of a table ( see {@link Statistics#getTrueCount(CountingSystem)} ).
+	 *
+	 * @param t		table.
+	 * @return		true count.
+	 */
+	private float trueCount( int t ){
+		int cardsremaning = this.shoecards - this.cardsplayed[t];
+		int decksremaning = (int) Math.ceil( (float)(cardsremaning) / (float)(Deck.DECKSIZE) );
+		return (float)(this.hilocount[t]) / (float)(decksremaning);
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Betting phase: the previous bet, or the bet of the Ace-Five strategy.
+	 *
+	 * @param t		table.
+	 */
+	private void placeBet( int t ){
+		int amount = Strategies.PREVIOUSBET;
+		int b;
+
+		if ( this.acefive )
+			amount = this.strategies.determineAceFiveStrategy( this.acefivecount[t] , this.getMinbet() , this.bet[t] ,
+					this.getMaxbet() , this.cardsplayed[t] , this.balance[t] );
+		if ( amount == Strategies.PREVIOUSBET )
+			b = ( this.bet[t] == 0 ) ? this.getMinbet() : this.bet[t];
+		else
+			b = amount;
+		this.bet[t] = b;
+		this.balance[t] = this.balance[t] - b;
+	}
+
+	/**
+	 * Deal phase: the up card and the hole card of the dealer, then 2 cards to the player.
+	 * The hole card is only counted when it is turned.
+	 *
+	 * @param t		table.
+	 */
+	private void dealFirstCards( int t ){
+		int hand = t * this.maxhands;
+		int card;
+
+		this.roundcursor[t] = this.cursor[t];
+		card = this.dealCard(t);
+		this.countCard( t , card );
+		this.upcard[t] = (byte) card;
+		this.dealerstate[t] = HandState.next( HandState.EMPTY , card );
+		this.holecard[t] = (byte) this.dealCard(t);
+
+		this.numberofhands[t] = 1;
+		card = this.dealCard(t);
+		this.countCard( t , card );
+		this.handstate[hand] = HandState.next( HandState.EMPTY , card );
+		this.firstcard[hand] = (byte) card;
+		this.siderules[hand] = 0;
+		this.hitHand( t , hand );
+		this.stopdealer[t] = true;
+	}
+
+	/**
+	 * Player phase: every hand of the player is played until it stands, busts, doubles or
+	 * surrenders, like {@link GameBody#playerPlays()}.
+	 *
+	 * @param t		table.
+	 */
+	private void playHands( int t ){
+		boolean done;
+		boolean cansiderules;
+		Command command;
+		int hand;
+
+		for ( int h = 0 ; h < this.numberofhands[t] ; h++ ) {
+			hand = t * this.maxhands + h;
+			done = false;
+			cansiderules = true;
+			while ( !done ) {
+				command = this.decide( t , hand );
+				switch ( command ) {
+				case HIT:
+					cansiderules = false;
+					this.hitHand( t , hand );
+					done = HandState.getValue( this.handstate[hand] ) > 21;
+					break;
+				case STAND:
+					cansiderules = false;
+					done = true;
+					this.stopdealer[t] = false;
+					break;
+				case INSURANCE:
+					if ( this.bet[t] <= this.balance[t] && this.upcard[t] == 0 ) {
+						this.siderules[hand] |= Strategies.INSURED;
+						cansiderules = false;
+					}
+					break;
+				case SURRENDER:
+					if ( cansiderules ) {
+						this.siderules[hand] |= Strategies.SURRENDERED;
+						cansiderules = false;
+						done = true;
+					}
+					break;
+				case SPLIT:
+					if ( cansiderules && HandState.getPairIndex( this.handstate[hand] ) >= 0 ) {
+						this.splitHand( t , h );
+						hand = t * this.maxhands + h;
+					}
+					break;
+				case DOUBLE:
+					if ( cansiderules && this.balance[t] >= 2*this.bet[t] ) {
+						this.balance[t] -= (float)(1*this.bet[t]);
+						this.siderules[hand] |= Strategies.DOUBLED;
+						this.hitHand( t , hand );
+						if ( HandState.getValue( this.handstate[hand] ) <= 21 )
+							this.stopdealer[t] = false;
+						done = true;
+					}
+					break;
+				default:
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Command of the strategy for a hand of the player of a table.
+	 *
+	 * @param t		table.
+	 * @param hand	index of the hand on the hand arrays.
+	 * @return		command.
+	 */
+	private Command decide( int t , int hand ){
+		boolean candouble = this.balance[t] >= 2*this.bet[t];
+
+		if ( !this.hilow )
+			return this.strategies.determineBasicStrategyCommand( this.handstate[hand] , this.siderules[hand] , this.upcard[t] , candouble );
+		return this.strategies.determineHiLowStrategyCommand( this.trueCount(t) , this.handstate[hand] , this.siderules[hand] ,
+				this.firstcard[hand] , this.upcard[t] , candouble , this.bet[t] <= this.balance[t] );
+	}
+
+	/**
+	 * Splits a pair of the player of a table: the second card goes to a new hand, the player
+	 * pays a new bet and each hand gets a card ( see {@link Player#SplitHand(int)} ).
+	 *
+	 * @param t		table.
+	 * @param h		hand of the player split.
+	 */
+	private void splitHand( int t , int h ){
+		int hand;
+		int newhand;
+		int card;
+
+		if ( this.numberofhands[t] == this.maxhands )
+			this.growHands();
+		hand = t * this.maxhands + h;
+		newhand = t * this.maxhands + this.numberofhands[t];
+		this.numberofhands[t]++;
+
+		card = HandState.getPairIndex( this.handstate[hand] );
+		this.handstate[hand] = HandState.next( HandState.EMPTY , card );
+		this.siderules[hand] |= Strategies.SPLITTED;
+		this.handstate[newhand] = HandState.next( HandState.EMPTY , card );
+		this.firstcard[newhand] = (byte) card;
+		this.siderules[newhand] = Strategies.SPLITTED;
+		this.balance[t] = this.balance[t] - this.bet[t];
+
+		this.hitHand( t , hand );
+		this.hitHand( t , newhand );
+	}
+
+	/**
+	 * Dealer phase: the hole card is turned and the dealer hits until the rule makes it stand.
+	 *
+	 * @param t		table.
+	 */
+	private void playDealer( int t ){
+		int state;
+		int card;
+
+		card = this.holecard[t];
+		this.countCard( t , card );
+		state = HandState.next( this.dealerstate[t] , card );
+		while ( !this.dealerrule.standsOnHand(state) ) {
+			card = this.dealCard(t);
+			this.countCard( t , card );
+			state = HandState.next( state , card );
+		}
+		this.dealerstate[t] = state;
+	}
+
+	/**
+	 * Payoff phase: the result of every hand of the player of a table, and what it pays
+	 * ( see {@link GameBody#calcResult(PHand)} and {@link GameBody#executePayoffs(PHand, Result)} ).
+	 *
+	 * @param t		table.
+	 */
+	private void payHands( int t ){
+		int dealer = this.dealerstate[t];
+		int ds = HandState.getValue(dealer);
+		boolean dealerbj = HandState.isBlackJack(dealer);
+		int state;
+		int rules;
+		boolean playerbj;
+		int ps;
+		Result result;
+		int b;
+		float returns;
+
+		for ( int hand = t * this.maxhands ; hand < t * this.maxhands + this.numberofhands[t] ; hand++ ) {
+			state = this.handstate[hand];
+			rules = this.siderules[hand];
+			ps = HandState.getValue(state);
+			playerbj = HandState.isBlackJack(state);
+
+			if ( ( rules & Strategies.SURRENDERED ) != 0 || ps > 21 )
+				result = Result.LOSE;
+			else if ( ds > 21 || ps > ds )
+				result = playerbj ? Result.WINBYBJ : Result.WIN;
+			else if ( ds > ps )
+				result = dealerbj ? Result.LOSEBYBJ : Result.LOSE;
+			else if ( playerbj )
+				result = dealerbj ? Result.TIEBYBJ : Result.WINBYBJ;
+			else
+				result = dealerbj ? Result.LOSEBYBJ : Result.TIE;
+
+			b = this.bet[t];
+			returns = 0;
+			if ( ( rules & Strategies.DOUBLED ) != 0 )
+				b = 2*b;
+			if ( ( rules & Strategies.INSURED ) != 0 && dealerbj )
+				returns += 2*b;
+			if ( ( rules & Strategies.SURRENDERED ) != 0 )
+				returns = (float) (0.5*b);
+			else if ( result == Result.WINBYBJ )
+				returns += ( ( rules & Strategies.SPLITTED ) != 0 ) ? (float) (2.5*b) : (float) (2*b);
+			else if ( result == Result.WIN )
+				returns += (float) (2*b);
+			else if ( result == Result.TIE || result == Result.TIEBYBJ )
+				returns += (float) (1*b);
+			this.balance[t] = this.balance[t] + returns;
+
+			this.results[t*RESULTS + result.ordinal()]++;
+		}
+		this.games[t]++;
+	}
+
+	/**
+	 * End of a round of a table: the shoe is reshuffled ( or the discards collected ) like in
+	 * {@link GameSimulation#playRound()}, and the table is over when it performed every shuffle
+	 * or the player can not bet anymore.
+	 *
+	 * @param t		table.
+	 * @return		true if the table is over.
+	 */
+	private boolean finishRound( int t ){
+		float shoeplayed;
+
+		if ( this.csm ) {
+			this.csmcards[t] += this.cursor[t];
+			this.cursor[t] = 0;
+			this.resetCount(t);
+			shoeplayed = (float)(this.csmcards[t]) / (float)(this.shoecards) * 100 ;
+			if ( shoeplayed >= this.shufflepercent ) {
+				this.shuffles[t]++;
+				this.csmcards[t] = 0;
+			}
+		} else {
+			shoeplayed = (float)(this.cardsplayed[t]) / (float)(this.shoecards) * 100 ;
+			if ( shoeplayed >= this.shufflepercent ) {
+				this.cursor[t] = 0;
+				this.shuffles[t]++;
+				this.resetCount(t);
+			}
+		}
+		return this.shuffles[t] == this.numberOfShuffles || !( this.balance[t] > this.getMinbet() );
+	}
+
+	/**
+	 * Sets the counts of a table back to 0.
+	 *
+	 * @param t		table.
+	 */
+	private void resetCount( int t ){
+		this.cardsplayed[t] = 0;
+		this.hilocount[t] = 0;
+		this.acefivecount[t] = 0;
+	}
+
+	/**
+	 * Doubles the number of hands every table has room for.
+	 */
+	private void growHands(){
+		int n = this.numberoftables;
+		int newmax = 2 * this.maxhands;
+		int[] newstate = new int[n * newmax];
+		byte[] newfirst = new byte[n * newmax];
+		byte[] newrules = new byte[n * newmax];
+
+		for ( int t = 0 ; t < n ; t++ ) {
+			System.arraycopy( this.handstate , t*this.maxhands , newstate , t*newmax , this.maxhands );
+			System.arraycopy( this.firstcard , t*this.maxhands , newfirst , t*newmax , this.maxhands );
+			System.arraycopy( this.siderules , t*this.maxhands , newrules , t*newmax , this.maxhands );
+		}
+		this.handstate = newstate;
+		this.firstcard = newfirst;
+		this.siderules = newrules;
+		this.maxhands = newmax;
+	}
+
+}
@@ -18,19 +18,62 @@ public class Card {
 	 * One of the four valid suits for this card.
 	 */	
 	private final Suit suit;
+	/**
+	 * Position of the card in a 52-card deck ( suit * ranks + rank ).
+	 */
+	private final int ordinal;
+
+	/**
+	 * Number of ranks in a suit.
+	 */
+	private static final int RANKS = Rank.values().length;
+
+	/**
+	 * The 52 canonical cards, indexed by ordinal. Every card in the game is one of these.
+	 */
+	private static final Card[] CARDS = new Card[Rank.values().length * Suit.values().length];
+
+	static {
+		for ( Suit s : Suit.values() )
+			for ( Rank r : Rank.values() )
+				CARDS[ s.ordinal()*RANKS + r.ordinal() ] = new Card(r, s);
+	}
 
 	//***********************************************************************************************
 	
 	/**
-	 * Card constructor
+	 * Card constructor. Only used to build the canonical cards, use {@link #of(Rank, Suit)}
+	 * or {@link #ofOrdinal(int)} to obtain a card.
 	 * 
 	 * @param r		rank of the card
 	 * @param s		suit of the card
 	 */
 	
-	public Card ( Rank r , Suit s) {
+	private Card ( Rank r , Suit s) {
 		this.rank = r;
 		this.suit = s;
+		this.ordinal = s.ordinal()*RANKS + r.ordinal();
+	}
+	
+	/**
+	 * Obtain the canonical card with a given rank and suit.
+	 * 
+	 * @param r		rank of the card
+	 * @param s		suit of the card
+	 * @return		the card.
+	 */
+	public static Card of ( Rank r , Suit s ) {
+		return CARDS[ s.ordinal()*RANKS + r.ordinal() ];
+	}
+	
+	/**
+	 * Obtain the canonical card with a given ordinal.
+	 * 
+	 * @param ordinal	position of the card in a 52-card deck (0-51).
+	 * @return		the card.
+	 */
+	public static Card ofOrdinal ( int ordinal ) {
+		return CARDS[ordinal];
 	}
 	
 	//***********************************************************************************************
@@ -53,6 +96,15 @@ public class Card {
 		return this.rank.getRankValue();
 	}	
 	
+	/**
+	 * Getter for the count index of the card.
+	 * 
+	 * @return	index of the value of the card in a composition vector (0-9).
+	 */
+	public int getCountIndex(){
+		return this.rank.getCountIndex();
+	}
+	
 	/**
 	 * Getter for the suit of the card.
 	 * 
@@ -61,6 +113,15 @@ public class Card {
 	public Suit getCardSuit(){
 		return this.suit;
 	}	
+	
+	/**
+	 * Getter for the ordinal of the card.
+	 * 
+	 * @return	position of the card in a 52-card deck (0-51).
+	 */
+	public int getOrdinal(){
+		return this.ordinal;
+	}
 		
 	@Override
 	/**
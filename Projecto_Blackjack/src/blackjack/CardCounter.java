@@ -0,0 +1,117 @@
+package blackjack;
+
+/**
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ * Running counts of several counting systems at once ( see {@link CountingSystem} ).
+ *
+ * The weights of the systems are kept transposed, one row per card value with the weight of
+ * every system, so counting a card is a single pass over one row of the table added to the
+ * running counts.
+ *
+ */
+public class CardCounter {
+
+	/**
+	 * [Field] Systems counted, in the order of the running counts.
+	 */
+	private final CountingSystem[] systems;
+
+	/**
+	 * [Field] Weights of the systems, indexed by count index * number of systems + system.
+	 */
+	private final int[] weights;
+
+	/**
+	 * [Field] Running count of each system.
+	 */
+	private final int[] counts;
+
+	/**
+	 * [Field] Number of cards counted since the last reset.
+	 */
+	private int cards;
+
+	//***********************************************************************************************
+
+	/**
+	 * Creates a counter for some counting systems, with every count at 0.
+	 *
+	 * @param systems	systems to count.
+	 */
+	public CardCounter( CountingSystem... systems ){
+		int n = systems.length;
+
+		this.systems = systems.clone();
+		this.weights = new int[Rank.COUNTS * n];
+		this.counts = new int[n];
+		for ( int r = 0 ; r < Rank.COUNTS ; r++ )
+			for ( int k = 0 ; k < n ; k++ )
+				this.weights[r*n + k] = systems[k].getWeight(r);
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Counts a card in every system.
+	 *
+	 * @param countindex	count index of the card ( see {@link Rank#getCountIndex()} ).
+	 */
+	public void count( int countindex ){
+		int n = this.counts.length;
+		int row = countindex * n;
+
+		for ( int k = 0 ; k < n ; k++ )
+			this.counts[k] += this.weights[row + k];
+		this.cards++;
+	}
+
+	/**
+	 * Sets every running count, and the number of cards counted, back to 0.
+	 */
+	public void reset(){
+		for ( int k = 0 ; k < this.counts.length ; k++ )
+			this.counts[k] = 0;
+		this.cards = 0;
+	}
+
+	/**
+	 * Running count of one of the systems.
+	 *
+	 * @param index		position of the system in the systems given to the constructor.
+	 * @return			running count.
+	 */
+	public int getCount( int index ){
+		return this.counts[index];
+	}
+
+	/**
+	 * Number of cards counted since the last reset.
+	 *
+	 * @return	number of cards.
+	 */
+	public int getCardsCounted(){
+		return this.cards;
+	}
+
+	/**
+	 * Number of systems counted.
+	 *
+	 * @return	number of systems.
+	 */
+	public int getNumberOfSystems(){
+		return this.counts.length;
+	}
+
+	/**
+	 * System counted at a position.
+	 *
+	 * @param index		position of the system.
+	 * @return			the system.
+	 */
+	public CountingSystem getSystem( int index ){
+		return this.systems[index];
+	}
+
+}
@@ -0,0 +1,236 @@
+package blackjack;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import blackjack.Strategies.Command;
+
+/**
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ * Class used to read the commands from the cmd file one at a time, as they are needed.
+ * Only the command being read is held in memory, whatever the size of the file.
+ *
+ * Commands are separated by white space. A bet followed by a value ( "b VALUE" ) is
+ * read as a single command, like in {@link ReadFile#readCmdFile(java.util.Scanner)}.
+ * Each command is returned already decoded, with the value of the bet kept apart, so
+ * no string is created for a valid command and the game executes it directly.
+ *
+ */
+public class CommandReader {
+
+	/**
+	 * Reader for the cmd file.
+	 */
+	private final Reader reader;
+
+	/**
+	 * Buffer for the token being read.
+	 */
+	private final StringBuilder token;
+
+	/**
+	 * true if the buffer holds a token read ahead of time, when looking for the value of a bet.
+	 */
+	private boolean pending;
+
+	/**
+	 * true if a command was read and not returned yet.
+	 */
+	private boolean ready;
+
+	/**
+	 * Last command read, or null if it was not a valid command.
+	 */
+	private Command command;
+
+	/**
+	 * Value of the last bet read, or Strategies.PREVIOUSBET.
+	 */
+	private int amount;
+
+	/**
+	 * Text of the last command read, when it was not a valid command.
+	 */
+	private String text;
+
+	//***********************************************************************************************
+
+	/**
+	 * Creates a command reader over a reader.
+	 *
+	 * @param reader	reader with the commands.
+	 */
+	public CommandReader( Reader reader ){
+		this.reader = new BufferedReader( reader );
+		this.token = new StringBuilder();
+		this.pending = false;
+		this.ready = false;
+	}
+
+	/**
+	 * Function to open a cmd file from a specific directory.
+	 *
+	 * @param directory		Takes the directory of the file.
+	 * @return				Returns the command reader for the file.
+	 */
+	public static CommandReader openFile( String directory ){
+		try{
+			return new CommandReader( new FileReader( directory ) );
+		}
+		catch(Exception e){
+			System.out.println("Could not find a file");
+			System.exit(0);
+		}
+		return null;
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Checks if there are more commands to read.
+	 *
+	 * @return	true if there is at least one more command.
+	 */
+	public boolean hasNext(){
+		if( !this.ready )
+			this.ready = readCommand();
+		return this.ready;
+	}
+
+	/**
+	 * Returns the next command. The value of a bet is given by {@link #getAmount()}.
+	 *
+	 * @return	next command, or null if it is not a valid command ( see {@link #getText()} )
+	 * 			or there are no more commands.
+	 */
+	public Command next(){
+		if( !hasNext() )
+			return null;
+		this.ready = false;
+		return this.command;
+	}
+
+	/**
+	 * Getter for the value of the last bet returned.
+	 *
+	 * @return	value of the bet, or Strategies.PREVIOUSBET if the bet had no value.
+	 */
+	public int getAmount(){
+		return this.amount;
+	}
+
+	/**
+	 * Getter for the text of the last command returned, when it was not a valid command.
+	 *
+	 * @return	text of the command.
+	 */
+	public String getText(){
+		return this.text;
+	}
+
+	/**
+	 * Function used to close the file.
+	 */
+	public void close(){
+		try{
+			this.reader.close();
+		}
+		catch(IOException e){
+			System.out.println("Could not close the cmd file");
+		}
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Reads a command from the file, joining a bet with its value.
+	 *
+	 * @return	true if a command was read, false at the end of the file.
+	 */
+	private boolean readCommand(){
+		if( this.pending )
+			this.pending = false;
+		else if( !readToken() )
+			return false;
+
+		this.command = Command.decode( this.token );
+		this.amount = Strategies.PREVIOUSBET;
+		if( this.command == null )
+			this.text = this.token.toString();
+		else if( this.command == Command.BET && readToken() ){
+			if( isInteger( this.token ) )
+				this.amount = parseInteger( this.token );
+			else
+				this.pending = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the next white space separated token from the file into the token buffer.
+	 *
+	 * @return	true if a token was read, false at the end of the file.
+	 */
+	private boolean readToken(){
+		int c;
+
+		this.token.setLength(0);
+		try{
+			do {
+				c = this.reader.read();
+			} while( c != -1 && Character.isWhitespace(c) );
+			while( c != -1 && !Character.isWhitespace(c) ){
+				this.token.append( (char) c );
+				c = this.reader.read();
+			}
+		}
+		catch(IOException e){
+			System.out.println("Could not read the cmd file");
+			System.exit(0);
+		}
+		return this.token.length() > 0;
+	}
+
+	/**
+	 * Checks if a token is an integer value, like {@link Integer#parseInt(String)} would
+	 * accept it.
+	 *
+	 * @param s		token.
+	 * @return		true if the token is an integer.
+	 */
+	private static boolean isInteger( CharSequence s ){
+		int first = ( s.charAt(0) == '-' || s.charAt(0) == '+' ) ? 1 : 0;
+		long value = 0;
+
+		if( first == s.length() )
+			return false;
+		for( int k = first; k < s.length(); k++ ){
+			if( Character.digit( s.charAt(k) , 10 ) < 0 )
+				return false;
+			value = 10*value + Character.digit( s.charAt(k) , 10 );
+			if( value > (long) Integer.MAX_VALUE + 1 )
+				return false;
+		}
+		return s.charAt(0) == '-' || value <= Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Value of a token that is an integer.
+	 *
+	 * @param s		token.
+	 * @return		value of the token.
+	 */
+	private static int parseInteger( CharSequence s ){
+		int first = ( s.charAt(0) == '-' || s.charAt(0) == '+' ) ? 1 : 0;
+		long value = 0;
+
+		for( int k = first; k < s.length(); k++ )
+			value = 10*value + Character.digit( s.charAt(k) , 10 );
+		return (int) ( s.charAt(0) == '-' ? -value : value );
+	}
+
+}
@@ -0,0 +1,48 @@
+package blackjack;
+
+/**
+ * Listener that writes every event of the game to the System output.
+ *
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ */
+public class ConsoleListener implements GameListener {
+
+	public void message( String text ){
+		System.out.println(text);
+	}
+
+	public void dealerCards( Hand hand ){
+		System.out.println("Dealer's hand " + hand.listCards() + "(" + hand.getHandValue() + ")");
+	}
+
+	public void playerCards( Hand hand ){
+		System.out.println("Player's hand: " + hand.listCards() + "(" + hand.getHandValue() + ")");
+	}
+
+	public void command( String command ){
+		System.out.println(command);
+	}
+
+	public void command( Strategies.Command command , int amount ){
+		System.out.println( GameBody.commandText( command , amount ) );
+	}
+
+	public void illegalCommand( String command ){
+		System.out.println(command + ": illegal command");
+	}
+
+	public void bet( int bet ){
+		System.out.println("Player is betting " + bet);
+	}
+
+	public void balance( float balance ){
+		System.out.println("Player's Current Balance is " + balance);
+	}
+
+	public void shuffling(){
+		System.out.println("Shuffling the shoe...");
+	}
+
+}
@@ -0,0 +1,30 @@
+package blackjack;
+
+/*
+ * An enum representing the card counting systems: each one is the weight it adds to the
+ * running count for every card value ( A, 2-9 and T, see Rank.getCountIndex() ).
+ */
+public enum CountingSystem {
+	//			  A   2   3   4   5   6   7   8   9   T
+	HILO	( new int[]{ -1 , 1 , 1 , 1 , 1 , 1 , 0 , 0 , 0 , -1 } ),
+	KO		( new int[]{ -1 , 1 , 1 , 1 , 1 , 1 , 1 , 0 , 0 , -1 } ),
+	HIOPT1	( new int[]{  0 , 0 , 1 , 1 , 1 , 1 , 0 , 0 , 0 , -1 } ),
+	HIOPT2	( new int[]{  0 , 1 , 1 , 2 , 2 , 1 , 1 , 0 , 0 , -2 } ),
+	OMEGA2	( new int[]{  0 , 1 , 1 , 2 , 2 , 2 , 1 , 0 , -1 , -2 } ),
+	ZEN		( new int[]{ -1 , 1 , 1 , 2 , 2 , 2 , 1 , 0 , 0 , -2 } ),
+	ACEFIVE	( new int[]{ -1 , 0 , 0 , 0 , 1 , 0 , 0 , 0 , 0 , 0 } ),
+	ACES	( new int[]{  1 , 0 , 0 , 0 , 0 , 0 , 0 , 0 , 0 , 0 } );
+	
+	private final int[] weights;
+	
+	CountingSystem ( int[] weights ){
+		this.weights = weights;
+	}
+	
+	/*
+	 * Weight of a card value in this system.
+	 */
+	public int getWeight( int countindex ){
+		return weights[countindex];
+	}
+};
@@ -0,0 +1,213 @@
+package blackjack;
+
+/**
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ * Finite state machine of the dealer's play. A dealer's hand only matters by its value and
+ * by whether it has an Ace worth 11 (soft), so the machine has one state per (value, soft)
+ * pair. The states where the dealer stands and the state after each card are computed once,
+ * for one of the two usual rules:
+ * 	- S17: the dealer stands on every 17;
+ * 	- H17: the dealer hits a soft 17.
+ *
+ * The same tables are used to play the dealer's hand and to compute the probabilities of
+ * the totals the dealer ends with.
+ *
+ */
+public final class DealerAutomaton {
+
+	/**
+	 * Dealer stands on every 17.
+	 */
+	public static final DealerAutomaton S17 = new DealerAutomaton( false );
+
+	/**
+	 * Dealer hits a soft 17.
+	 */
+	public static final DealerAutomaton H17 = new DealerAutomaton( true );
+
+	/**
+	 * Highest value kept by a state.
+	 */
+	private static final int MAXVALUE = 31;
+
+	/**
+	 * Number of states: value * 2 + ( 1 if soft ).
+	 */
+	public static final int NUMBEROFSTATES = 2 * ( MAXVALUE + 1 );
+
+	/**
+	 * Number of final outcomes of the dealer: 17, 18, 19, 20, 21 and bust.
+	 */
+	public static final int OUTCOMES = 6;
+
+	/**
+	 * Outcome of a busted dealer.
+	 */
+	public static final int BUST = 5;
+
+	/**
+	 * [Field] State after dealing a card to a state, indexed by state * Rank.COUNTS + count index.
+	 */
+	private final int[] next;
+
+	/**
+	 * [Field] States where the dealer stands.
+	 */
+	private final boolean[] stand;
+
+	/**
+	 * [Field] Whether the dealer stands, for each hand state ( see {@link HandState} ).
+	 */
+	private final boolean[] standhand;
+
+	//***********************************************************************************************
+
+	/**
+	 * Builds the tables of the automaton.
+	 *
+	 * @param hitsoft17		true if the dealer hits a soft 17.
+	 */
+	private DealerAutomaton( boolean hitsoft17 ){
+		int value;
+		boolean soft;
+
+		this.next = new int[NUMBEROFSTATES * Rank.COUNTS];
+		this.stand = new boolean[NUMBEROFSTATES];
+		for ( int state = 0 ; state < NUMBEROFSTATES ; state++ ) {
+			value = state >> 1;
+			soft = ( state & 1 ) == 1;
+			this.stand[state] = value > 17 || ( value == 17 && !( soft && hitsoft17 ) );
+			for ( int r = 0 ; r < Rank.COUNTS ; r++ )
+				this.next[state*Rank.COUNTS + r] = nextState( value , soft , r );
+		}
+
+		this.standhand = new boolean[HandState.NUMBEROFSTATES];
+		for ( int hs = 0 ; hs < HandState.NUMBEROFSTATES ; hs++ )
+			this.standhand[hs] = this.stand[ fromHandState(hs) ];
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * State of the automaton for a given hand.
+	 *
+	 * @param handstate		state of the hand ( see {@link HandState} ).
+	 * @return				state of the automaton.
+	 */
+	public static int fromHandState( int handstate ){
+		return 2 * HandState.getValue( handstate ) + ( HandState.isSoft( handstate ) ? 1 : 0 );
+	}
+
+	/**
+	 * Checks if the dealer stands on a hand.
+	 *
+	 * @param handstate		state of the dealer's hand ( see {@link HandState} ).
+	 * @return				true if the dealer stands.
+	 */
+	public boolean standsOnHand( int handstate ){
+		return this.standhand[handstate];
+	}
+
+	/**
+	 * Checks if the dealer stands on a state.
+	 *
+	 * @param state		state of the automaton.
+	 * @return			true if the dealer stands.
+	 */
+	public boolean stands( int state ){
+		return this.stand[state];
+	}
+
+	/**
+	 * State after the dealer takes a card.
+	 *
+	 * @param state			state of the automaton.
+	 * @param countindex	count index of the card ( see {@link Rank#getCountIndex()} ).
+	 * @return				new state.
+	 */
+	public int next( int state , int countindex ){
+		return this.next[ state*Rank.COUNTS + countindex ];
+	}
+
+	/**
+	 * Value of the dealer's hand on a state.
+	 *
+	 * @param state		state of the automaton.
+	 * @return			value of the hand.
+	 */
+	public static int getValue( int state ){
+		return state >> 1;
+	}
+
+	/**
+	 * Probabilities of the outcomes of the dealer, from a state, when each card is dealt with
+	 * the given probabilities ( for example the composition of the shoe divided by the number
+	 * of cards left, see {@link Deck#getRankCounts()} ).
+	 *
+	 * @param state			state of the automaton the dealer starts from.
+	 * @param probabilities	probability of dealing a card of each count index.
+	 * @return				probability of each outcome: 17, 18, 19, 20, 21 and bust.
+	 */
+	public double[] getFinalDistribution( int state , double[] probabilities ){
+		double[][] outcomes = new double[NUMBEROFSTATES][];
+		return finalDistribution( state , probabilities , outcomes );
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Probabilities of the outcomes of the dealer from a state, remembering the ones already
+	 * computed. Every card raises the hard value of the hand, so the recursion ends.
+	 *
+	 * @param state			state of the automaton.
+	 * @param probabilities	probability of dealing a card of each count index.
+	 * @param outcomes		outcomes already computed for each state, or null.
+	 * @return				probability of each outcome.
+	 */
+	private double[] finalDistribution( int state , double[] probabilities , double[][] outcomes ){
+		double[] result;
+		double[] after;
+
+		if ( outcomes[state] != null )
+			return outcomes[state];
+
+		result = new double[OUTCOMES];
+		if ( getValue(state) > 21 )
+			result[BUST] = 1;
+		else if ( this.stand[state] )
+			result[ getValue(state) - 17 ] = 1;
+		else {
+			for ( int r = 0 ; r < Rank.COUNTS ; r++ ) {
+				if ( probabilities[r] == 0 )
+					continue;
+				after = finalDistribution( this.next[state*Rank.COUNTS + r] , probabilities , outcomes );
+				for ( int o = 0 ; o < OUTCOMES ; o++ )
+					result[o] += probabilities[r] * after[o];
+			}
+		}
+		outcomes[state] = result;
+		return result;
+	}
+
+	/**
+	 * State after a card is dealt to a hand.
+	 * A hand that is not soft and has a hard value of 11 or less has no Ace, since an Ace
+	 * would be worth 11, so the (value, soft) pair is enough to know the next state.
+	 *
+	 * @param value			value of the hand.
+	 * @param soft			true if the hand has an Ace worth 11.
+	 * @param countindex	count index of the card.
+	 * @return				new state.
+	 */
+	private static int nextState( int value , boolean soft , int countindex ){
+		int hard = soft ? value - 10 : value;
+
+		hard += ( countindex == 0 ) ? 1 : countindex + 1;
+		soft = ( soft || countindex == 0 ) && hard + 10 <= 21;
+		value = Math.min( soft ? hard + 10 : hard , MAXVALUE );
+		return 2 * value + ( soft ? 1 : 0 );
+	}
+
+}
@@ -1,11 +1,23 @@
 package blackjack;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.*;
 
 /**
  * Representation of a Deck of cards, more specifically, a shoe. ( several 52-card decks tied
- * together). The class is characterized by a simple list of cards, the initial size of the shoe
- * (how many decks it has) and how many cards it has at a given moment.
- * 
+ * together). The class is characterized by a flat array of card ordinals, a cursor pointing
+ * to the next card to be dealt, the initial size of the shoe (how many decks it has) and how
+ * many cards it has at a given moment.
+ *
+ * Cards in positions [0, cursor) were already dealt, cards in positions [cursor, size) are
+ * still on the shoe. Dealing a card is an array read plus an increment of the cursor.
+ *
+ * A shoe can also deal its cards straight from a buffer, usually a file mapped in memory
+ * ( see {@link ShoeFile} ), so no card is copied when the shoe is loaded.
+ *
+ * The shoe also keeps how many cards of each value ( A, 2-9, T ) are left on it, updated
+ * every time a card is dealt or added.
+ *
  * @author Filipe Silvério
  * @author Miguel Laranjeira
  *
@@ -13,10 +25,38 @@ import java.util.*;
 public class Deck {
 
 	/**
-	 * List of cards in this deck.
+	 * Ways of shuffling the shoe.
+	 * FULL shuffles every card on the shoe at once.
+	 * LAZY only picks each card at random when it is dealt, so the cost of the
+	 * shuffle is proportional to the cards actually dealt. Both give the same
+	 * distribution of cards.
+	 * CSM behaves like a continuous shuffling machine: cards are dealt like in LAZY
+	 * mode and the discards are put back into the shoe after each round, so the shoe
+	 * never runs out and never needs a full reshuffle.
+	 */
+	public enum ShuffleMode { FULL , LAZY , CSM };
+
+	/**
+	 * Ordinals of the cards in this deck ( see {@link Card#getOrdinal()} ).
+	 */
+	private byte[] cards;
+
+	/**
+	 * Buffer holding the ordinals of the cards when the shoe is dealt from a mapped
+	 * file, null otherwise.
+	 */
+	private ByteBuffer mapped;
+
+	/**
+	 * Position of the next card to be dealt.
 	 */
-	private LinkedList<Card> cards;
-	
+	private int cursor;
+
+	/**
+	 * Number of positions of the array holding cards.
+	 */
+	private int size;
+
 	/**
 	 * Initial size of the Shoe -> Number of complete decks.
 	 */
@@ -26,94 +66,350 @@ public class Deck {
 	 * Remaining quantity of cards on the shoe.
 	 */
 	private int numberofcards;
-	
+
+	/**
+	 * Random source used to shuffle the cards.
+	 */
+	private RandomSource random;
+
+	/**
+	 * How the shoe is shuffled.
+	 */
+	private ShuffleMode shufflemode;
+
+	/**
+	 * Flag indicating that the cards on the shoe were not shuffled yet and
+	 * each one must be picked at random when dealt ( lazy shuffle ).
+	 */
+	private boolean randomdraw;
+
+	/**
+	 * Number of cards of each value left on the shoe, indexed by {@link Rank#getCountIndex()}.
+	 */
+	private final int[] rankcounts = new int[Rank.COUNTS];
+
+	/**
+	 * Number of cards of each value stored on the shoe, dealt or not.
+	 */
+	private final int[] shoecounts = new int[Rank.COUNTS];
+
+	/**
+	 * Read only view of rankcounts.
+	 */
+	private final IntBuffer rankcountsview = IntBuffer.wrap( rankcounts ).asReadOnlyBuffer();
+
 	/**
 	 * Size of a Deck -> Number of cards on one deck.
 	 */
 	public static final int DECKSIZE = Rank.values().length * Suit.values().length;
-	
-	
+
+	/**
+	 * Count index of the card with each ordinal.
+	 */
+	private static final byte[] COUNTINDEX = new byte[DECKSIZE];
+
+	static {
+		for ( int k = 0 ; k < DECKSIZE ; k++ )
+			COUNTINDEX[k] = (byte) Card.ofOrdinal(k).getCardRank().getCountIndex();
+	}
+
 	//***********************************************************************************************
-	
+
 	/**
 	 * Create an empty deck/shoe.
 	 */
 	public Deck(){
-		this.cards = new LinkedList<Card>();
+		this.cards = new byte[DECKSIZE];
+		this.random = new SplitMixRandom( System.nanoTime() );
+		this.shufflemode = ShuffleMode.FULL;
 	}
-	
+
 	/**
 	 * Create a a shoe with a specific quantity of complete decks.
-	 * 
+	 *
 	 * @param ss number of complete decks.
 	 */
 	public Deck( int ss) {
+		this( ss , new SplitMixRandom( System.nanoTime() ) );
+	}
+
+	/**
+	 * Create a a shoe with a specific quantity of complete decks that is
+	 * shuffled with the given random source.
+	 *
+	 * @param ss		number of complete decks.
+	 * @param random	random source used to shuffle the shoe.
+	 */
+	public Deck( int ss , RandomSource random ) {
 		this.shoesize = ss;
-		this.cards = new LinkedList<Card>( );
+		this.cards = new byte[ss*DECKSIZE];
+		this.random = random;
+		this.shufflemode = ShuffleMode.FULL;
 		for ( int i = 0 ; i < ss ; i++ )
-			for ( Suit s : Suit.values() )
-				for ( Rank r : Rank.values() )
-					this.addCardToDeck ( new Card(r, s) );		
+			for ( int k = 0 ; k < DECKSIZE ; k++ ) {
+				this.cards[this.size++] = (byte) k;
+				this.shoecounts[ COUNTINDEX[k] ]++;
+			}
+		this.numberofcards = this.size;
+		System.arraycopy( this.shoecounts , 0 , this.rankcounts , 0 , Rank.COUNTS );
 	}
-	
+
+	/**
+	 * Create a shoe that deals the cards stored in a buffer, in order, without copying them.
+	 * The cards are only copied to the heap if the shoe has to be changed ( shuffled or
+	 * cards added ).
+	 *
+	 * @param mapped		ordinals of the cards, from position 0 to the limit of the buffer.
+	 * @param shoecounts	number of cards of each value on the buffer.
+	 */
+	public Deck( ByteBuffer mapped , int[] shoecounts ) {
+		this.mapped = mapped;
+		this.random = new SplitMixRandom( System.nanoTime() );
+		this.shufflemode = ShuffleMode.FULL;
+		this.size = mapped.limit();
+		this.shoesize = this.size / DECKSIZE;
+		this.numberofcards = this.size;
+		System.arraycopy( shoecounts , 0 , this.shoecounts , 0 , Rank.COUNTS );
+		System.arraycopy( shoecounts , 0 , this.rankcounts , 0 , Rank.COUNTS );
+	}
+
 	//***********************************************************************************************
 
 	/**
 	 * Getter for numberofcards
-	 * 
+	 *
 	 * @return	remaining number of cards on the shoe.
 	 */
 	public final int getNumberofcards(){
 		return this.numberofcards;
 	}
-	
+
 	/**
 	 * Getter for shoesize
-	 * 
+	 *
 	 * @return	initial number of decks on this shoe.
 	 */
 	public final int getShoeSize(){
 		return this.shoesize;
 	}
 
+	/**
+	 * Setter for the random source used to shuffle the cards.
+	 *
+	 * @param random	random source.
+	 */
+	public final void setRandom( RandomSource random ){
+		this.random = random;
+	}
+
+	/**
+	 * Getter for the way the shoe is shuffled.
+	 *
+	 * @return	FULL, LAZY or CSM.
+	 */
+	public final ShuffleMode getShuffleMode(){
+		return this.shufflemode;
+	}
+
+	/**
+	 * Setter for the way the shoe is shuffled.
+	 *
+	 * @param shufflemode	FULL, LAZY or CSM.
+	 */
+	public final void setShuffleMode( ShuffleMode shufflemode ){
+		this.shufflemode = shufflemode;
+	}
+
+	/**
+	 * Number of cards with a given value left on the shoe.
+	 *
+	 * @param countindex	index of the value ( see {@link Rank#getCountIndex()} ).
+	 * @return	number of cards with that value on the shoe.
+	 */
+	public final int getRankCount( int countindex ){
+		return this.rankcounts[countindex];
+	}
+
+	/**
+	 * Read only view of the number of cards of each value left on the shoe, indexed
+	 * by {@link Rank#getCountIndex()}. The view is not a copy: it always reflects the
+	 * current composition of the shoe.
+	 *
+	 * @return	view of the composition of the shoe.
+	 */
+	public final IntBuffer getRankCounts(){
+		return this.rankcountsview;
+	}
+
 	//***********************************************************************************************
-	
+
 	/**
 	 * Add a Card to the Deck (at the end/top)
-	 * 
+	 *
 	 * @param card	Card to be added.
 	 */
 	public final void addCardToDeck( Card card){
-		this.cards.add(card);		
+		if ( this.mapped != null )
+			this.loadMappedCards();
+		if ( this.size == this.cards.length )
+			this.cards = Arrays.copyOf( this.cards , 2*this.cards.length );
+		this.cards[this.size++] = (byte) card.getOrdinal();
 		this.numberofcards ++;
+		this.rankcounts[ COUNTINDEX[card.getOrdinal()] ]++;
+		this.shoecounts[ COUNTINDEX[card.getOrdinal()] ]++;
 	}
-	
+
 	/**
 	 * Remove and return a Card (at the end/top)
-	 * 
+	 *
 	 * @return	card removed
 	 */
 	public final Card retrieveCard(){
+		byte card;
+		if ( this.cursor == this.size )
+			throw new NoSuchElementException();
+		if ( this.mapped != null ) {	// Deal straight from the buffer.
+			card = this.mapped.get( this.cursor );
+		} else {
+			if ( this.randomdraw ) {	// Swap a random remaining card into the cursor position.
+				int j = this.cursor + this.random.nextInt( this.size - this.cursor );
+				card = this.cards[j];
+				this.cards[j] = this.cards[this.cursor];
+				this.cards[this.cursor] = card;
+			}
+			card = this.cards[this.cursor];
+		}
+		this.cursor ++;
 		this.numberofcards --;
-		return cards.remove();
+		this.rankcounts[ COUNTINDEX[card] ]--;
+		return Card.ofOrdinal( card );
+	}
+
+	/**
+	 * Copy the cards of a shoe dealt from a buffer to the heap, so they can be changed.
+	 */
+	private void loadMappedCards(){
+		this.cards = new byte[ Math.max( this.size , DECKSIZE ) ];
+		for ( int k = 0 ; k < this.size ; k++ )
+			this.cards[k] = this.mapped.get(k);
+		this.mapped = null;
 	}
 
 	/**
 	 * Shuffle the cards in this deck.
+	 * Fisher-Yates shuffle done in place over the cards still on the shoe, or, in
+	 * LAZY mode, deferred to the moment each card is dealt.
 	 */
 	public final void shuffleCards(){
-		System.out.println("Shuffling the shoe...");
-		Collections.shuffle(cards);
+		byte card;
+		int j;
+		if ( this.mapped != null )
+			this.loadMappedCards();
+		this.randomdraw = ( this.shufflemode != ShuffleMode.FULL );
+		if ( this.randomdraw )
+			return;
+		for ( int i = this.size-1 ; i > this.cursor ; i-- ) {
+			j = this.cursor + this.random.nextInt( i - this.cursor + 1 );
+			card = this.cards[i];
+			this.cards[i] = this.cards[j];
+			this.cards[j] = card;
+		}
+	}
+
+	/**
+	 * Gather all the cards dealt from this shoe back into it and shuffle them again.
+	 * The dealt cards are still stored before the cursor, so the shoe is reused
+	 * in place and nothing is allocated.
+	 * Must only be called once the cards dealt are no longer held by any hand.
+	 */
+	public final void reshuffle(){
+		this.cursor = 0;
+		this.numberofcards = this.size;
+		System.arraycopy( this.shoecounts , 0 , this.rankcounts , 0 , Rank.COUNTS );
+		this.shuffleCards();
+	}
+
+	/**
+	 * Shuffle the cards dealt from this shoe back into it, except the last ones dealt, that
+	 * are still held by the hands in play. The cards dealt are rotated so the ones in play
+	 * stay before the cursor and the discards come after it, so nothing is allocated.
+	 *
+	 * @param inplay	number of the last cards dealt that are still in play.
+	 * @throws NoSuchElementException	if every card dealt is still in play.
+	 */
+	public final void reshuffleDiscards( int inplay ){
+		if ( inplay >= this.cursor )
+			throw new NoSuchElementException();
+		if ( this.mapped != null )
+			this.loadMappedCards();
+		this.reverse( 0 , this.cursor );
+		this.reverse( 0 , inplay );
+		this.reverse( inplay , this.cursor );
+		this.cursor = inplay;
+		this.numberofcards = this.size - inplay;
+		System.arraycopy( this.shoecounts , 0 , this.rankcounts , 0 , Rank.COUNTS );
+		for ( int k = 0 ; k < inplay ; k++ )
+			this.rankcounts[ COUNTINDEX[this.cards[k]] ]--;
+		this.shuffleCards();
+	}
+
+	/**
+	 * Reverse the order of the cards in positions [from, to).
+	 *
+	 * @param from	first position.
+	 * @param to	position after the last.
+	 */
+	private void reverse( int from , int to ){
+		byte card;
+		for ( int i = from , j = to-1 ; i < j ; i++ , j-- ) {
+			card = this.cards[i];
+			this.cards[i] = this.cards[j];
+			this.cards[j] = card;
+		}
+	}
+
+	/**
+	 * Put the cards dealt from this shoe back into it, at random positions ( CSM mode ).
+	 * Cards are picked at random from the shoe when dealt, so moving the cursor back
+	 * is enough to reinsert every discard at a random position.
+	 * Must only be called once the cards dealt are no longer held by any hand.
+	 */
+	public final void collectDiscards(){
+		this.cursor = 0;
+		this.numberofcards = this.size;
+		System.arraycopy( this.shoecounts , 0 , this.rankcounts , 0 , Rank.COUNTS );
+	}
+
+	/**
+	 * Replace the cards of this shoe by cards stored in a buffer, already in the order
+	 * they must be dealt ( see {@link ShoeCorpus} ). The shoe keeps its size.
+	 *
+	 * @param source	buffer with the ordinals of the cards.
+	 * @param offset	position of the first card on the buffer.
+	 */
+	public final void loadCards( ByteBuffer source , int offset ){
+		if ( this.mapped != null )
+			this.loadMappedCards();
+		Arrays.fill( this.shoecounts , 0 );
+		for ( int k = 0 ; k < this.size ; k++ ) {
+			this.cards[k] = source.get( offset + k );
+			this.shoecounts[ COUNTINDEX[this.cards[k]] ]++;
+		}
+		this.cursor = 0;
+		this.numberofcards = this.size;
+		this.randomdraw = false;
+		System.arraycopy( this.shoecounts , 0 , this.rankcounts , 0 , Rank.COUNTS );
 	}
 
 	/**
 	 * Method used to directly print the list of cards on this shoe to the
-	 * standard output.
+	 * standard output. After a LAZY shuffle the order printed is not the order
+	 * in which the cards will be dealt.
 	 */
  	public void printCards (){
 		System.out.println("\n");
-		for ( int k = 0 ; k<cards.size() ; k++)
-			System.out.println ( cards.get(k));			
+		for ( int k = this.cursor ; k < this.size ; k++)
+			System.out.println ( Card.ofOrdinal( this.mapped != null ? this.mapped.get(k) : this.cards[k] ) );
 	}
-	
+
 }
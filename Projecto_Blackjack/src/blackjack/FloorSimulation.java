@@ -0,0 +1,172 @@
+package blackjack;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ * Simulation of a casino floor: many tables, each one a simulation of its own ( with its own
+ * dealer, player, shoe and statistics ), all playing at the same time.
+ *
+ * The tables do not get a thread each. A table is a simulation driven one round at a time
+ * ( see {@link GameSimulation#playRound()} ), so it keeps no stack between rounds: a shared
+ * ForkJoinPool plays ROUNDSPERSLICE rounds of a table and then queues the table again behind
+ * the others. The pool is in FIFO mode, so the tables take turns like threads would.
+ *
+ * At the end the statistics of the tables are merged, and the hands played per second and the
+ * memory used by each table are shown.
+ *
+ */
+public class FloorSimulation extends GameSimulation {
+
+	/**
+	 * Number of rounds a table plays before giving its turn to the other tables.
+	 */
+	public static final int ROUNDSPERSLICE = 64;
+
+	/**
+	 * [Field] Arguments of the simulation, given to every table.
+	 */
+	private final Arguments arguments;
+
+	/**
+	 * [Field] Number of tables on the floor.
+	 */
+	private final int numberoftables;
+
+	/**
+	 * [Field] Number of threads playing the tables.
+	 */
+	private final int threads;
+
+	/**
+	 * [Field] Tables of the floor.
+	 */
+	private GameSimulation[] tables;
+
+	/**
+	 * [Field] Number of tables still playing.
+	 */
+	private CountDownLatch playing;
+
+	/**
+	 * [Field] Pool playing the tables.
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * [Field] First failure of a table, or null. Once a table fails the others stop playing.
+	 */
+	private volatile Throwable failure;
+
+	//***********************************************************************************************
+
+	/**
+	 * Constructor for FloorSimulation.
+	 *
+	 * @param arguments		arguments of the simulation ( the -floor option gives the number of tables,
+	 * 						the -p option the number of threads, all the processors by default ).
+	 */
+	public FloorSimulation( Arguments arguments ) {
+		super( arguments );
+		this.arguments = arguments;
+		this.numberoftables = arguments.getTables();
+		this.threads = ( arguments.getThreads() > 0 ) ? arguments.getThreads() : Runtime.getRuntime().availableProcessors();
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Opens the tables, plays them until every table is over and shows the merged statistics,
+	 * the hands played per second and the memory used by each table.
+	 * The balance shown is the initial balance plus what the players won ( or lost ) in every table.
+	 *
+	 * @Overriden Method from GameSimulation.
+	 */
+	public void playGames(){
+
+		long memory;
+		long time;
+
+		memory = usedMemory();
+		this.tables = new GameSimulation[this.numberoftables];
+		for ( int t = 0 ; t < this.numberoftables ; t++ ) {
+			this.tables[t] = new GameSimulation( this.arguments , this.arguments.getSNumber() , this.random.split() , this.strategies );
+			this.tables[t].startGames();
+		}
+		memory = usedMemory() - memory;
+
+		this.playing = new CountDownLatch( this.numberoftables );
+		this.pool = new ForkJoinPool( this.threads , ForkJoinPool.defaultForkJoinWorkerThreadFactory , null , true );
+		time = System.nanoTime();
+		for ( int t = 0 ; t < this.numberoftables ; t++ )
+			this.pool.execute( newSlice( this.tables[t] ) );
+		try{
+			this.playing.await();
+		}
+		catch(InterruptedException e){
+			System.out.println("The floor simulation was interrupted");
+			System.exit(0);
+		}
+		time = System.nanoTime() - time;
+		this.pool.shutdown();
+		if ( this.failure != null ) {
+			System.out.println("The floor simulation failed: " + this.failure);
+			System.exit(0);
+		}
+
+		for ( GameSimulation table : this.tables )
+			this.merge( table );
+		this.finishGames();
+
+		System.out.println("Tables	" + this.numberoftables + " ( " + this.threads + " threads )");
+		System.out.println("Hands/s	" + (long)( this.getPlayerHands() / ( time / 1e9 ) ));
+		System.out.println("Memory	" + memory / this.numberoftables + " bytes per table");
+	}
+
+	/**
+	 * Creates the task playing the next rounds of a table. When the table is not over, the
+	 * task queues a new one for the following rounds. A table that fails is over, and its
+	 * failure is kept, so the floor always gets to the end of the simulation.
+	 *
+	 * @param table		table to play.
+	 * @return			the task.
+	 */
+	private Runnable newSlice( final GameSimulation table ){
+		return new Runnable() {
+			public void run(){
+				boolean over = true;
+
+				try{
+					for ( int r = 0 ; r < ROUNDSPERSLICE && table.gameover != true ; r++ )
+						table.playRound();
+					over = table.gameover || failure != null;
+				}
+				catch(Throwable e){
+					failure = e;
+				}
+				finally{
+					if ( over )
+						playing.countDown();
+					else
+						pool.execute( this );
+				}
+			}
+		};
+	}
+
+	/**
+	 * Memory used by the heap after a garbage collection.
+	 *
+	 * @return	bytes used.
+	 */
+	static long usedMemory(){
+		Runtime runtime = Runtime.getRuntime();
+
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
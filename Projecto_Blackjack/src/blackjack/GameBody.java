@@ -1,10 +1,13 @@
 package blackjack;
 
-import java.util.Scanner;
+import blackjack.Strategies.Command;
 
 /**
  * Class representative of the body of a BlackJack game.
  * The game is characterized by having a Player, a Dealer, and a shoe.
+ * A table can have more than one seat, each with its own Player and Statistics, dealt
+ * in seat order from the same shoe. The player and statistics fields are the ones of
+ * the seat playing at a given time.
  * The class also has some fields that represent fixed restrictions to the game
  * like the minimum and maximum bets allowed.
  * Some fields are used as flags to indicate information about the state of the game
@@ -34,16 +37,37 @@ public abstract class GameBody {
 	 */
 	protected Deck shoe;
 	
+	/**
+	 * [Field] Cards left on the shoe when the game being played started. Once the shoe
+	 * is empty they were all dealt in this game.
+	 */
+	protected int roundcards;
+	
 	/**
 	 * [Field] Dealer for the game.
 	 */
 	protected Dealer dealer;
 	
 	/**
-	 * [Field] Player for the game.
+	 * [Field] Player for the game ( the player of the seat playing at a given time ).
 	 */
 	protected Player player;
 	
+	/**
+	 * [Field] Players seated at the table, in the order they are dealt.
+	 */
+	protected Player[] players;
+	
+	/**
+	 * [Field] Index of the seat playing at a given time.
+	 */
+	protected int seat;
+	
+	/**
+	 * [Field] Seats with a bet on the game being played.
+	 */
+	protected boolean[] seated;
+	
 	/**
 	 * [Field] Indicates which of the player's hand the game is focused on a
 	 * given time of the blackjack game. Player can naturally have more than 
@@ -87,9 +111,15 @@ public abstract class GameBody {
 	protected boolean gameover;
 	
 	/**
-	 * [Field] Statistics for the game. Includes Card counting counters.
+	 * [Field] Statistics for the game ( the statistics of the seat playing at a given time ).
+	 * Includes Card counting counters.
 	 */
 	protected Statistics statistics;
+	
+	/**
+	 * [Field] Statistics of each seat. Every seat shares the card counting of the table.
+	 */
+	protected Statistics[] seatstatistics;
 
 	/**
 	 * [Field] Strategies that can be use in the blackjack game to determine
@@ -98,6 +128,36 @@ public abstract class GameBody {
 	 * player at a given play.
 	 */
 	protected Strategies strategies;
+	
+	/**
+	 * [Field] Random source used to shuffle the shoe. Seeded from the
+	 * arguments so that a game can be reproduced.
+	 */
+	protected RandomSource random;
+	
+	/**
+	 * [Field] Input Parameter - The shoe is a continuous shuffling machine:
+	 * the discards go back into the shoe after every game.
+	 */
+	protected boolean csm;
+	
+	/**
+	 * [Field] Input Parameter - Rule the dealer plays by: stand on every
+	 * 17 or hit a soft 17.
+	 */
+	protected DealerAutomaton dealerrule;
+	
+	/**
+	 * [Field] Receives everything the game reports while it is played: the console,
+	 * or nothing at all with the -q option.
+	 */
+	protected GameListener listener;
+	
+	/**
+	 * [Field] Value of the bet chosen with the last bet command, or
+	 * Strategies.PREVIOUSBET to bet the same as before.
+	 */
+	protected int betamount;
 
 	//***********************************************************************************************
 	
@@ -107,22 +167,78 @@ public abstract class GameBody {
 	 * Initiates the class fields.
 	 */
 	public GameBody( Arguments arguments ) {
+		this( arguments , new Strategies() );
+	}
+	
+	/**
+	 * GameBody Constructor for a game that plays with strategies already built.
+	 * 
+	 * @param arguments		command line arguments.
+	 * @param strategies	strategies of the game.
+	 */
+	protected GameBody( Arguments arguments , Strategies strategies ) {
 		this.minbet = arguments.getMinBet();
 		this.maxbet = arguments.getMaxBet();
 		this.dealer = new Dealer();
-		this.player = new Player( arguments.getBalance() );
+		this.createSeats( 1 , arguments.getBalance() , 1 );
 		this.playinghand = null;
 		this.gamephase = 0;
 		this.cansiderules = true;
 		this.shoe = null;
 		this.gameover = false;
-		this.statistics = new Statistics( arguments.getBalance() , 1 );
-		this.strategies = new Strategies();
+		this.strategies = strategies;
+		this.random = new SplitMixRandom( arguments.getSeed() );
+		this.csm = arguments.getCSM();
+		this.dealerrule = arguments.getH17() ? DealerAutomaton.H17 : DealerAutomaton.S17;
+		this.listener = arguments.getQuiet() ? new SilentListener() : new ConsoleListener();
+		this.betamount = Strategies.PREVIOUSBET;
 	}
 	
 	
 	//***********************************************************************************************
 	
+	/**
+	 * Seats the players of the table, each with the given balance. The statistics of the
+	 * seats share one card counting, since every seat sees the same cards.
+	 * The first seat is selected.
+	 * 
+	 * @param numberofseats	number of seats of the table.
+	 * @param balance		initial balance of each player.
+	 * @param shoesize		number of 52-card decks in the shoe.
+	 */
+	protected void createSeats( int numberofseats , int balance , int shoesize ){
+		this.players = new Player[numberofseats];
+		this.seatstatistics = new Statistics[numberofseats];
+		this.seated = new boolean[numberofseats];
+		this.seatstatistics[0] = new Statistics( balance , shoesize );
+		for ( int s = 0 ; s < numberofseats ; s++ ){
+			this.players[s] = new Player( balance );
+			if ( s > 0 )
+				this.seatstatistics[s] = new Statistics( balance , this.seatstatistics[0] );
+		}
+		this.selectSeat(0);
+	}
+	
+	/**
+	 * Selects the seat playing: the player and statistics fields become the ones of the seat.
+	 * 
+	 * @param seat	index of the seat.
+	 */
+	public void selectSeat( int seat ){
+		this.seat = seat;
+		this.player = this.players[seat];
+		this.statistics = this.seatstatistics[seat];
+	}
+	
+	/**
+	 * Getter for the number of seats.
+	 * 
+	 * @return	number of seats of the table.
+	 */
+	public int getNumberOfSeats(){
+		return this.players.length;
+	}
+	
 	/**
 	 * Getter for minbet.
 	 * 
@@ -142,6 +258,24 @@ public abstract class GameBody {
 	}
 	
 	
+	/**
+	 * Check if there is enough balance to double the bet of the player.
+	 * 
+	 * @return	true	if the player can double.
+	 */
+	public boolean canDouble(){
+		return player.getBalance() >= 2*player.getBet();
+	}
+	
+	/**
+	 * Check if there is enough balance to insure the bet of the player.
+	 * 
+	 * @return	true	if the player can insure.
+	 */
+	public boolean canInsure(){
+		return player.getBet() <= player.getBalance();
+	}
+	
 	/**
 	 * Check if there is enough balance to cover for a specific bet.
 	 * 
@@ -155,65 +289,111 @@ public abstract class GameBody {
 			return false;
 	}
 	
+	/**
+	 * Check if any seat of the table has enough balance to cover a specific bet.
+	 * 
+	 * @param 	bet		value of the bet
+	 * @return	true 	if at least one seat has enough balance.
+	 */
+	public boolean anySeatHasEnoughBalance( int bet ){
+		for ( Player p : this.players )
+			if ( p.getBalance() > bet )
+				return true;
+		return false;
+	}
+	
 	
 	/**
 	 * Reshuffle the shoe.
-	 * Creates a new Shoe with the same number of cards of the previous shoe
-	 * and shuffles the cards.
-	 * The old shoe is eventually collected by the garbage collector.
+	 * Gathers every card dealt so far back into the shoe and shuffles them
+	 * in place, so no new shoe is created.
 	 */
 	public void reshuffleDeck(){
-		int shoesize = shoe.getShoeSize();
-		this.shoe = new Deck(shoesize);
-		this.shoe.shuffleCards();
+		this.listener.shuffling();
+		this.shoe.reshuffle();
+	}
+	
+	/**
+	 * Deal a card from the shoe. A full table can empty the shoe before the cut card is
+	 * checked, at the end of the game: the cards of the games already played are then
+	 * shuffled to finish the game, while the cards of this game stay with the hands.
+	 * The card counting starts again, like after any shuffle.
+	 * 
+	 * @return	card dealt.
+	 */
+	protected Card drawCard(){
+		if ( this.shoe.getNumberofcards() == 0 ) {
+			this.listener.shuffling();
+			this.shoe.reshuffleDiscards( this.roundcards );
+			this.statistics.resetCardCounting();
+			// Every card left is dealt in this game as well.
+			this.roundcards += this.shoe.getNumberofcards();
+		}
+		return this.shoe.retrieveCard();
+	}
+	
+	/**
+	 * Put the cards of the game just played back into a continuous shuffling
+	 * machine. Counting cards is meaningless on such a shoe, so the card counting
+	 * is reset as well.
+	 */
+	public void collectDiscards(){
+		this.shoe.collectDiscards();
+		this.statistics.resetCardCounting();
 	}
 	
 	
 	/**
 	 * Deal the first 2 cards from the shoe to the dealer
-	 * followed by 2 cards from the shoe to the player.
+	 * followed by 2 cards from the shoe to each seated player, one
+	 * card at a time in seat order.
 	 * The 2nd Card dealt to the dealer is hidden (holecard).
+	 * 
+	 * A casino deals a card to each seat, the up card, a second card to each seat and then
+	 * the hole card. The dealer is kept first because the order is part of the shoe files of
+	 * the debug mode, and of every seeded result of a single seat: dealing like a casino would
+	 * give other hands from the same shoe. A corpus replayed by several seats therefore deals
+	 * the same cards as a real table, but not to the same places.
 	 */
 	public void dealFirstCards(){		
 		
 		Card card;
 		// Deal the following 2 cards to the dealer.
-		card = shoe.retrieveCard();
+		card = this.drawCard();
 		dealer.addCardToHand(card);
 		statistics.updateCardCounting(card);
-		card = shoe.retrieveCard();
+		card = this.drawCard();
 		dealer.addHolecard(card);
 		
-		// Deal first 2 cards to the player.		
-		player.newHand();
-		card = shoe.retrieveCard();
-		player.addCardToHand( card , 0 );
-		statistics.updateCardCounting(card);
-		card = shoe.retrieveCard();
-		player.addCardToHand( card , 0 );
-		statistics.updateCardCounting(card);
+		// Deal first 2 cards to the players, going round the table twice.
+		for ( int s = 0 ; s < players.length ; s++ )
+			if ( seated[s] )
+				players[s].newHand();
+		for ( int c = 0 ; c < 2 ; c++ ){
+			for ( int s = 0 ; s < players.length ; s++ ){
+				if ( !seated[s] )
+					continue;
+				card = this.drawCard();
+				players[s].addCardToHand( card , 0 );
+				statistics.updateCardCounting(card);
+			}
+		}
 	}
 	
 	/**
-	 * Show (system.out) the dealer's hand.
+	 * Show the dealer's hand to the listener.
 	 */
 	public void showDealerCards(){
-		Hand hand;
-		hand = dealer.getHand();
-		System.out.print("Dealer's hand " + hand.listCards() );
-		System.out.println("("+hand.getHandValue()+")" );
+		listener.dealerCards( dealer.getHand() );
 	}
 	
 	/**
-	 * Show (system.out) one specific hand of the player.
+	 * Show one specific hand of the player to the listener.
 	 * 
 	 * @param handindex	index of the hand that should be printed.
 	 */
 	public void showPlayerCards( int handindex){
-		Hand hand;
-		hand = player.getHand(handindex);
-		System.out.print("Player's hand: " + hand.listCards() );
-		System.out.println("("+hand.getHandValue()+")");
+		listener.playerCards( player.getHand(handindex) );
 	}
 
 	//***********************************************************************************************
@@ -264,9 +444,9 @@ public abstract class GameBody {
 	 */
 	public void commandAdvice( ){
 		
-		String basiccommand = "";
-		String hilowcommand = "";
-		String acefivecommand = "";
+		Command basiccommand;
+		Command hilowcommand;
+		int acefivebet;
 		PHand phand;
 		Hand dhand;
 		float truecount;	
@@ -279,8 +459,8 @@ public abstract class GameBody {
 		
 		
 		if ( this.gamephase == 1 ){
-			acefivecommand = strategies.determineAceFiveStrategy(acefivecount, minbet, bet, maxbet, cardsplayed);
-			System.out.println("acefive		"+acefivecommand);
+			acefivebet = strategies.determineAceFiveStrategy(acefivecount, minbet, bet, maxbet, cardsplayed, player.getBalance());
+			System.out.println("acefive		"+commandText( Command.BET , acefivebet ));
 		}
 		else if ( this.gamephase == 2 ){
 			System.out.println("deal - (d)");
@@ -289,11 +469,11 @@ public abstract class GameBody {
 			phand = this.playinghand;
 			dhand = dealer.getHand();
 			truecount = statistics.getTrueCount();
-			basiccommand = strategies.determineBasicStrategyCommand( phand , dhand );
-			System.out.println("basic	"+basiccommand);
+			basiccommand = strategies.determineBasicStrategyCommand( phand , dhand , this.canDouble() );
+			System.out.println("basic	"+basiccommand.getDecodedCommands());
 			
-			hilowcommand = strategies.determineHiLowStrategyCommand( truecount , phand, dhand);
-			System.out.println("hilow	"+hilowcommand);			
+			hilowcommand = strategies.determineHiLowStrategyCommand( truecount , phand, dhand, this.canDouble(), this.canInsure() );
+			System.out.println("hilow	"+hilowcommand.getDecodedCommands());			
 		}
 		else
 			System.out.println("[commandAdvice] Error - Incorrect gamephase");	
@@ -302,18 +482,15 @@ public abstract class GameBody {
 	
 	/**
 	 * Method to run the Bet command issued by the player.
-	 * @param command	command issued by the player
+	 * @param amount	value of the bet, or Strategies.PREVIOUSBET to bet the same as before.
 	 * @return	true if the command was correctly executed, false otherwise.
 	 */
-	public boolean commandBet( String command  ){
+	public boolean commandBet( int amount ){
 		
-		Scanner scan = new Scanner (command);
 		int bet;
 		float newbalance;
 				
-		scan.next();
-				
-		if (scan.hasNext() == false ){	// No bet value is provided in the command.
+		if ( amount == Strategies.PREVIOUSBET ){	// No bet value is provided in the command.
 			if ( player.getBet() == 0 )	{	// Bet the minimum value
 				bet = this.minbet;
 			}
@@ -321,37 +498,28 @@ public abstract class GameBody {
 				bet = player.getBet();			
 			}
 		}
-		else if ( scan.hasNextInt() ){	// Bet value is provided in the command.
-			bet = scan.nextInt();
-			
-		} else {	// Illegal command.
-			System.out.println(command + ": illegal command");
-			scan.close();
-			return false;
+		else {	// Bet value is provided in the command.
+			bet = amount;
 		}
 		
 		if ( bet < minbet ) {// Check if bet is not lower then minbet
-			System.out.println("You can't bet that value because it's lower then minbet");	
-			scan.close();
+			listener.message("You can't bet that value because it's lower then minbet");	
 			return false;			
 		}
 		else if ( bet > this.maxbet ) {	// Check if bet is less than maxbet allowed
-			System.out.println("You can't bet that value because it's higher than maxbet");	
-			scan.close();
+			listener.message("You can't bet that value because it's higher than maxbet");	
 			return false;
 		} else if ( bet > player.getBalance() ){ // Check if player has enough balance.
-			System.out.println("You can't bet that value because you don't have enough balance");
-			scan.close();
+			listener.message("You can't bet that value because you don't have enough balance");
 			return false;			
 		} else {
 			// If there is enough balance remove the bet value from it.
 			player.setBet(bet);
 			newbalance = player.getBalance() - bet;
 			player.setBalance(newbalance);
-			System.out.println("Player is betting " + bet);
+			listener.bet(bet);
 		}
 		
-		scan.close();
 		return true;
 	}
 	
@@ -377,16 +545,16 @@ public abstract class GameBody {
 		
 		hasbusted = false;
 		
-		card = shoe.retrieveCard();
+		card = this.drawCard();
 		this.statistics.updateCardCounting(card);
 		player.addCardToHand( card, handindex );
 		
-		System.out.println("Player hits.");
+		listener.message("Player hits.");
 		
 		hand = player.getHand(handindex);		
 		if ( hand.getHandValue() > 21 ){
 			showPlayerCards(handindex);
-			System.out.println("Player busts");
+			listener.message("Player busts");
 			hasbusted = true;
 		}
 			
@@ -404,15 +572,15 @@ public abstract class GameBody {
 		
 		hand = player.getHand(handindex);
 		if ( hand.canSplit() != true ){
-			System.out.println("You can't split this hand.");
+			listener.message("You can't split this hand.");
 			return false;
 		}
 			
 		this.player.SplitHand(handindex);
-		card = shoe.retrieveCard();
+		card = this.drawCard();
 		this.statistics.updateCardCounting(card);
 		this.player.addCardToHand( card , handindex);
-		card = shoe.retrieveCard();
+		card = this.drawCard();
 		this.statistics.updateCardCounting(card);
 		this.player.addCardToHand( card , player.getNumberOfHands()-1 );
 		
@@ -432,13 +600,13 @@ public abstract class GameBody {
 		PHand hand = player.getHand(handindex);
 		
 		// Check if you can double
-		if ( player.getBalance() >= 2*player.getBet() ){
+		if ( this.canDouble() ){
 			newbalance -= (float)(1*bet);
 			player.setBalance(newbalance);
 			hand.setDoublee(true);
 			return true;
 		} else{
-			System.out.println("You can't double your bet. Not enough balance.");
+			listener.message("You can't double your bet. Not enough balance.");
 			return false;			
 		}	
 		
@@ -467,15 +635,13 @@ public abstract class GameBody {
 		
 		PHand phand = player.getHand(handindex);
 		Hand dhand = dealer.getHand();
-		float newbalance = player.getBalance();
-		int bet = player.getBet();
 		
-		if ( bet > newbalance )	{ // Check if there is enough balance to do insurance.
-			System.out.println("You can't insure in this situation.");
+		if ( !this.canInsure() )	{ // Check if there is enough balance to do insurance.
+			listener.message("You can't insure in this situation.");
 			return false;
 		}
 		if ( dhand.getNumberofaces() != 1 ){	// Check if dealer has an Ace.
-			System.out.println("You can't insure in this situation.");
+			listener.message("You can't insure in this situation.");
 			return false;			
 		}
 		phand.setInsurance(true);
@@ -488,12 +654,62 @@ public abstract class GameBody {
 	/**
 	 * Function to determine the command to be executed by the player.
 	 * In this class it is basically a signature and will be overriden in the
-	 * subclasses.
+	 * subclasses. The value of a bet command is left in the betamount field.
 	 * 
+	 * @return	the command, or null if the player did not give a valid command.
 	 */
-	public String determineCommand() {
+	public Command determineCommand() {
 		return null;
 	}
+	
+	/**
+	 * Decodes a command typed by the player ( or read from a file ): a command of
+	 * the help list, with a value for the bet command ( "b VALUE" ).
+	 * The value of the bet is left in the betamount field.
+	 * 
+	 * @param text	-> text of the command.
+	 * @return the command, or null if the text is not a valid command.
+	 */
+	public Command decodeCommand( String text ){
+		String[] words = text.trim().split("\\s+");
+		Command command;
+		
+		if ( words[0].isEmpty() ){
+			listener.message("[executeCommand] Error! No command was found.");
+			listener.message("Invalid command. Type help to see valid commands");
+			return null;
+		}
+		command = Command.decode( words[0] );
+		if ( command == null ){
+			listener.message("Invalid command. Type help to see valid commands");
+			return null;
+		}
+		
+		this.betamount = Strategies.PREVIOUSBET;
+		if ( command == Command.BET && words.length > 1 ){
+			try{
+				this.betamount = Integer.parseInt( words[1] );
+			}
+			catch(NumberFormatException e){
+				listener.illegalCommand(text);
+				return null;
+			}
+		}
+		return command;
+	}
+	
+	/**
+	 * Text of a command, as it would be typed by the player.
+	 * 
+	 * @param command	-> command.
+	 * @param amount	-> value of the bet for the bet command.
+	 * @return text of the command.
+	 */
+	public static String commandText( Command command , int amount ){
+		if ( command == Command.BET && amount != Strategies.PREVIOUSBET )
+			return command.getDecodedCommands() + " " + amount;
+		return command.getDecodedCommands();
+	}
 			
 	/**
 	 * This function executes the command chosen by the player regarding
@@ -501,75 +717,67 @@ public abstract class GameBody {
 	 * round playing.
 	 * 
 	 * @param command	-> command to be executed.
+	 * @param amount	-> value of the bet for the bet command, or Strategies.PREVIOUSBET.
 	 * @param handindex	-> index of the hand
 	 * @return true if player has ended his round, false otherwise.
 	 */
- 	public boolean executeCommand( String command , int handindex ){
+ 	public boolean executeCommand( Command command , int amount , int handindex ){
 		boolean isPlayerDone = false;
 		boolean commandsuccess = false;
-		String comm;
-		Scanner scan = new Scanner(command);		
-		
-		if (scan.hasNext() != true){
-			System.out.println("[executeCommand] Error! No command was found.");
-			comm = "error";
-		}
-		else
-			comm = scan.next();	
 		
 		// Decode which command the player wishes to execute.
-		switch (comm) {
+		switch (command) {
 		// Ask for help command.
-		case("help"):
+		case HELP:
 			this.commandHelp();
 			break;
 		// Bet Command
-		case("b"):			// Bet	- DONE
+		case BET:			// Bet	- DONE
 			if ( gamephase != 1 ) {
-				System.out.println(command + ": illegal command");
+				listener.illegalCommand( commandText( command , amount ) );
 				break;
 			}
-			commandsuccess = commandBet ( command );
+			commandsuccess = commandBet ( amount );
 			if ( commandsuccess == true )
 				gamephase ++;
 			break;
 		// Show current balance command
-		case("$"):
-			System.out.println("player current balance is " + player.getBalance() );
+		case BALANCE:
+			listener.message("player current balance is " + player.getBalance() );
 			break;
 		// Deal the cards command
-		case("d"):
+		case DEAL:
 			if ( gamephase != 2 ) {
-				System.out.println(command + ": illegal command");
+				listener.illegalCommand( commandText( command , amount ) );
 				break;
 			}
 			commandDeal();
 			gamephase ++;
 			break;
 		// Hit command
-		case("h"):
+		case HIT:
 			if ( gamephase != 3 ) {
-				System.out.println(command + ": illegal command");
+				listener.illegalCommand( commandText( command , amount ) );
 				break;
 			}
 			this.cansiderules = false;
 			isPlayerDone = commandHit(handindex);
 			break;
 		// Stand command.
-		case("s"):
+		case STAND:
 			if ( gamephase != 3 ) {
-				System.out.println(command + ": illegal command");
+				listener.illegalCommand( commandText( command , amount ) );
 				break;
 			}
 			this.cansiderules = false;
 			isPlayerDone = true;
 			this.stopdealer = false;
-			System.out.println("Player stands.");
+			listener.message("Player stands.");
 			break;
 		// Insurance command
-		case("i"):
+		case INSURANCE:
 			if ( gamephase != 3 ) {
-				System.out.println(command + ": illegal command");
+				listener.illegalCommand( commandText( command , amount ) );
 				break;
 			}	
 			commandsuccess = this.commandInsurance(handindex);
@@ -578,9 +786,9 @@ public abstract class GameBody {
 			}
 			break;
 		// Surrender Command
-		case("u"):
+		case SURRENDER:
 			if ( cansiderules != true || gamephase != 3 ) {
-				System.out.println(command + ": illegal command");
+				listener.illegalCommand( commandText( command , amount ) );
 				break;
 			}	
 			this.commandSurrender(handindex);
@@ -588,17 +796,17 @@ public abstract class GameBody {
 			isPlayerDone = true;
 			break;
 		// Split Cards command.
-		case("p"):
+		case SPLIT:
 			if ( cansiderules != true  || gamephase != 3 ){
-				System.out.println( command + ": illegal command");
+				listener.illegalCommand( commandText( command , amount ) );
 				break;				
 			}
 			this.commandSplit( handindex );
 			break;
 		// Double the bet command.
-		case("2"):
+		case DOUBLE:
 			if ( cansiderules != true || gamephase != 3 ) {
-				System.out.println(command + ": illegal command");
+				listener.illegalCommand( commandText( command , amount ) );
 				break;
 			}	
 			commandsuccess = this.commandDouble(handindex);
@@ -610,62 +818,87 @@ public abstract class GameBody {
 			}
 			break;
 		// Ask for advice command.
-		case("ad"):
+		case ADVICE:
 			this.commandAdvice();
 			break;
 		// Show statistics command.
-		case("st"):
+		case STATISTICS:
 			this.commandStatistics();
 			break;
 		// Quit the game command.
-		case("q"):
+		case QUIT:
 			if ( gamephase != 1 ) {
-				System.out.println(command + ": illegal command");
+				listener.illegalCommand( commandText( command , amount ) );
 				break;
 			}	
-			System.out.println("You decided to stop playing.");
+			listener.message("You decided to stop playing.");
 			isPlayerDone = true;
 			this.gameover = true;
 			break;
 		default:
-			System.out.println("Invalid command. Type help to see valid commands");
+			listener.message("Invalid command. Type help to see valid commands");
 			break;
 		}
-		scan.close();
 		return isPlayerDone;
 	}
  	
 	/**
-	 * Sequence of actions the player does till he ends his play.
-	 * His actions stop when he "Stands" , "Busts" or achieves "BlackJack"
+	 * Sequence of actions the players do till they end their play.
+	 * Every seat bets in turn, the first seat with a bet asks for the deal, and then
+	 * every seat plays its hands in turn.
+	 * Each player's actions stop when he "Stands" , "Busts" or achieves "BlackJack"
 	 */
 	public void playerPlays(){
 		boolean playerdone = false;		// tag that indicates if player has finished his play.
-		String command;
-		
-		this.gamephase = 1;
+		Command command;
+		int first = -1;		// first seat with a bet, it asks for the deal.
 		
 		// 1st Stage of Player interaction: Betting.
-		while ( this.gamephase == 1 && playerdone == false ){
-			command = this.determineCommand();
-			playerdone = this.executeCommand(command , 0);
-		}		
+		for ( int s = 0 ; s < players.length ; s++ ){
+			this.seated[s] = false;
+			this.selectSeat(s);
+			// A seat that can not cover the minimum bet sits out, unless it is alone at the table.
+			if ( this.gameover || ( players.length > 1 && !this.hasEnoughBalance(this.minbet) ) )
+				continue;
+			this.gamephase = 1;
+			playerdone = false;
+			while ( this.gamephase == 1 && playerdone == false ){
+				command = this.determineCommand();
+				if ( command != null )
+					playerdone = this.executeCommand(command , this.betamount , 0);
+			}
+			this.seated[s] = this.gamephase == 2;
+			if ( this.seated[s] && first < 0 )
+				first = s;
+		}
+		if ( first < 0 )
+			return;
 		// 2nd Stage of Player interaction: Deal the Cards.
+		this.selectSeat(first);
+		this.gamephase = 2;
+		playerdone = false;
 		while ( this.gamephase == 2 && playerdone == false ){
 			command = this.determineCommand();
-			playerdone = this.executeCommand(command , 0);
+			if ( command != null )
+				playerdone = this.executeCommand(command , this.betamount , 0);
 		}
 		// 3rd Stage of Player interaction: hit, stand or apply side rules.
-		for ( int nh = 0 ; nh < player.getNumberOfHands() ; nh++ ){
-			this.playinghand = this.player.getHand(nh);
-			playerdone = false;
-			this.cansiderules = true;
-			while ( playerdone != true ){
-				this.showPlayerCards(nh);
-				command = this.determineCommand();
-				playerdone = this.executeCommand(command , nh);			
+		for ( int s = first ; s < players.length ; s++ ){
+			if ( !this.seated[s] )
+				continue;
+			this.selectSeat(s);
+			for ( int nh = 0 ; nh < player.getNumberOfHands() ; nh++ ){
+				this.playinghand = this.player.getHand(nh);
+				playerdone = false;
+				this.cansiderules = true;
+				while ( playerdone != true ){
+					this.showPlayerCards(nh);
+					command = this.determineCommand();
+					if ( command != null )
+						playerdone = this.executeCommand(command , this.betamount , nh);			
+				}
+					
 			}
-				
 		}
 		
 	}
@@ -673,7 +906,8 @@ public abstract class GameBody {
 	/**
 	 * Sequence of actions the dealer does till the end of his play.
 	 * Dealer will hit if the value of his hand is lower than 17, otherwise
-	 * the dealer will stand.
+	 * the dealer will stand ( with the -h17 option the dealer also hits a soft 17 ).
+	 * The decision is read from the table of the dealer rule.
 	 */
 	public void dealerPlays(){
 		Card card;
@@ -682,11 +916,11 @@ public abstract class GameBody {
 		statistics.updateCardCounting(card);
 		showDealerCards();
 		
-		while ( dealer.getHand().getHandValue() < 17 ) {
-			card = shoe.retrieveCard();
+		while ( !dealerrule.standsOnHand( dealer.getHand().getState() ) ) {
+			card = this.drawCard();
 			dealer.addCardToHand(card);
 			statistics.updateCardCounting(card);
-			System.out.println("Dealer hits.");
+			listener.message("Dealer hits.");
 			this.showDealerCards();
 		}
 		
@@ -709,54 +943,54 @@ public abstract class GameBody {
 		int ds = dealerhand.getHandValue();
 		
 		if ( playerhand.getSurrender() == true ){
-			System.out.println("Player has surrendered!");
+			listener.message("Player has surrendered!");
 			return Result.LOSE;
 		}
 		
 		if ( ps > 21 ) {	// Player has busted.
-			System.out.println("Player has busted! You LOSE.");
+			listener.message("Player has busted! You LOSE.");
 			return Result.LOSE;
 		} else if ( ds > 21 ) {	//Dealer has busted.
 			if ( playerhand.hasBlackJack() == true ){
-				System.out.println("Dealer has busted! You WIN by BlackJack!");
+				listener.message("Dealer has busted! You WIN by BlackJack!");
 				return Result.WINBYBJ;
 			}
 			else {
-				System.out.println("Dealer has busted! You WIN!");
+				listener.message("Dealer has busted! You WIN!");
 				return Result.WIN;			
 			}
 		} else if ( ps > ds ){	// Player Score > Dealer Score
 			if ( playerhand.hasBlackJack() == true ){
-				System.out.println("Player's hand is better than the dealer's. You WIN by BlackJack!");
+				listener.message("Player's hand is better than the dealer's. You WIN by BlackJack!");
 				return Result.WINBYBJ;
 			}
-			System.out.println("Player's hand is better than the dealer's. You WIN. Congratz!");
+			listener.message("Player's hand is better than the dealer's. You WIN. Congratz!");
 			return  Result.WIN;	
 		} else if ( ds > ps ) {
 			if ( dealerhand.hasBlackJack() == true ) {
-				System.out.println("Player's Hand is worse than the dealer's. You LOSE by Blackjack.");
+				listener.message("Player's Hand is worse than the dealer's. You LOSE by Blackjack.");
 				return Result.LOSEBYBJ;
 			}
-			System.out.println("Player's Hand is worse than the dealer's. You LOSE.");
+			listener.message("Player's Hand is worse than the dealer's. You LOSE.");
 			return Result.LOSE;
 		} else if ( ds == ps ) {	// Player Score == Dealer Score
 			if ( playerhand.hasBlackJack() && !dealerhand.hasBlackJack() )	{
-				System.out.println("Player's hand is a BlackJack and the dealer's is not. You WIN by BlackJack.");
+				listener.message("Player's hand is a BlackJack and the dealer's is not. You WIN by BlackJack.");
 				return Result.WINBYBJ;
 			} else if ( playerhand.hasBlackJack() && dealerhand.hasBlackJack() ) {
-				System.out.println("Player's Hand and Dealer's Hand are a BlackJack. You PUSH.");
+				listener.message("Player's Hand and Dealer's Hand are a BlackJack. You PUSH.");
 				return Result.TIEBYBJ;
 			}
 			else if ( !playerhand.hasBlackJack() && dealerhand.hasBlackJack() ) {
-				System.out.println("Player's hand is not a BlackJack and the dealer's is. You LOSE by BlackJack.");
+				listener.message("Player's hand is not a BlackJack and the dealer's is. You LOSE by BlackJack.");
 				return Result.LOSEBYBJ;				
 			}
-			System.out.println("Player's hand is worth the same as the dealer's. You PUSH");
+			listener.message("Player's hand is worth the same as the dealer's. You PUSH");
 			return Result.TIE;
 		}
 		
-		System.out.println("Caso Imprevisto!!!");
-		System.out.println("");
+		listener.message("Caso Imprevisto!!!");
+		listener.message("");
 		return Result.TIE;
 	}
 	
@@ -806,25 +1040,26 @@ public abstract class GameBody {
 				returns += (float) (1*bet);			
 		}		
 		player.setBalance( balance + returns );
-		System.out.println("Player's Current Balance is " + player.getBalance() );
+		listener.balance( player.getBalance() );
 		
 	}
 		
 	/**
 	 *  Method for playing One and only one session of Blackjack.
 	 *  The game features
-	 *  1st the Player plays (bet, ask for deal , hit/stand/siderules).
+	 *  1st the Players play (bet, ask for deal , hit/stand/siderules).
 	 *  2nd the Dealer plays (hit/stand according to the dealer's rules).
-	 *  3rd the result for each of the player's hands is calculated.
-	 *  4th the payoffs of each hand are paid to the player (according to the result)
-	 *  Finnally both the player and dealer's hands are cleaned.
+	 *  3rd the result for each of the players' hands is calculated.
+	 *  4th the payoffs of each hand are paid to its player (according to the result)
+	 *  Finnally both the players and dealer's hands are cleaned.
 	 */
 	public void playOneGame(){
 		Result result;
 		
 		
 		
-		this.stopdealer = true;		
+		this.stopdealer = true;
+		this.roundcards = this.shoe.getNumberofcards();
 		this.playerPlays();
 		
 		// Se o Player não der bust ou Surrender o Dealer deve prosseguir com o jogo.
@@ -832,15 +1067,21 @@ public abstract class GameBody {
 		if ( stopdealer != true )
 			this.dealerPlays();	
 		
-		for ( int hi = 0 ; hi < player.getNumberOfHands() ; hi++){
-			result = this.calcResult ( player.getHand(hi) );
-			this.executePayoffs( player.getHand(hi) , result );
-			this.statistics.updateHandStatistics(result);
+		for ( int s = 0 ; s < players.length ; s++ ){
+			if ( !this.seated[s] )
+				continue;
+			this.selectSeat(s);
+			for ( int hi = 0 ; hi < player.getNumberOfHands() ; hi++){
+				result = this.calcResult ( player.getHand(hi) );
+				this.executePayoffs( player.getHand(hi) , result );
+				this.statistics.updateHandStatistics(result);
+			}
+			
+			this.statistics.updateGameStatistics();
+			this.player.clearHands();
 		}
 		
-		this.statistics.updateGameStatistics();
-		
-		this.player.clearHands();
+		this.selectSeat(0);
 		this.dealer.clearHand();
 				
 
@@ -1,6 +1,8 @@
 package blackjack;
 
-import java.util.*;
+import java.util.Scanner;
+
+import blackjack.Strategies.Command;
 
 public class GameDebug extends GameBody{
 	
@@ -17,16 +19,11 @@ public class GameDebug extends GameBody{
 	private String cmdfile;	
 	
 	/**
-	 * List of commands to be taken by the player during the games.
-	 * The list is decoded from the a file with the name given by
-	 * the field shoefile.	
-	 */
-	private LinkedList<String> commandslist;
-	
-	/**
-	 * Iterator used to go through the List of commands.
+	 * Reader of the commands to be taken by the player during the games.
+	 * The commands are read one at a time from the file with the name given
+	 * by the field cmdfile, as the player needs them.
 	 */
-	private Iterator<String> commandsiterator;
+	private CommandReader commands;
 	
 	//***********************************************************************************************
 	
@@ -38,10 +35,9 @@ public class GameDebug extends GameBody{
 		super( arguments );
 		this.shoefile = arguments.getShoeFile();
 		this.cmdfile = arguments.getCmdFile();
-		this.commandslist = null;
-		this.commandsiterator = null;
+		this.commands = null;
 
-		this.statistics = new Statistics( arguments.getBalance() , 2 );
+		this.createSeats( 1 , arguments.getBalance() , 2 );
 	}
 
 	//***********************************************************************************************
@@ -49,21 +45,31 @@ public class GameDebug extends GameBody{
 	/**
 	 * Method to determine the command to be executed by the player.
 	 * In this subclass the action to be performed by the player is determined
-	 * by the commands retrieved form a file and saved on the commandlist field.
+	 * by the commands read from a file by the commands field.
 	 * 
-	 * @return
+	 * The commands come already decoded, with the value of a bet kept apart, so they
+	 * are executed without being parsed again. Once the commands run out the player quits.
+	 * 
+	 * @return	the command, or null if the command read is not valid.
 	 */
-	public String determineCommand ( ){
-		String command = "q";
+	public Command determineCommand ( ){
+		Command command = Command.QUIT;
 		
-		System.out.println("");
+		listener.message("");
+		this.betamount = Strategies.PREVIOUSBET;
 		
-		if (commandsiterator.hasNext() == true) {
-			command = commandsiterator.next();	
-			System.out.println(command);		
+		if (commands.hasNext() == true) {
+			command = commands.next();
+			if ( command == null ) {
+				listener.command( commands.getText() );
+				listener.message("Invalid command. Type help to see valid commands");
+				return null;
+			}
+			this.betamount = commands.getAmount();
+			listener.command( command , this.betamount );
 		}
 		else
-			commandsiterator = null;	
+			commands = null;	
 
 		return command;
 	}	
@@ -73,15 +79,15 @@ public class GameDebug extends GameBody{
 	 * executed by the player.
 	 * (commands are retrieved from a file)
 	 * 
-	 * The sequence of commands to be performed by the player will temporarily be
-	 * saved in the field "comm". Eventually all the commands will be executed and
-	 * the end of the list of commands will be reached. Once that happens the field
-	 * comm will have "null" in it therefore marking that there are no more commands
-	 * to be performed. During the playGames() cycle of playOneGame() if it is detected
-	 * null on the field comm we flag the game as over (gameover = true) and stop the
-	 * cycle of playOneGame().
+	 * The commands to be performed by the player are read one at a time through the
+	 * field "commands". Eventually all the commands will be executed and the end of
+	 * the file of commands will be reached. Once that happens the field commands will
+	 * have "null" in it therefore marking that there are no more commands to be
+	 * performed. During the playGames() cycle of playOneGame() if it is detected
+	 * null on the field commands we flag the game as over (gameover = true) and stop
+	 * the cycle of playOneGame().
 	 * 
-	 * The update to the field command is done in another overriden function - 
+	 * The update to the field commands is done in another overriden function - 
 	 * determinCommand().
 	 */
 	public void playGames(){
@@ -90,17 +96,18 @@ public class GameDebug extends GameBody{
 		int round = 0;
 		
 		// Open shoefile and save its data on the deck class (shoe).
-		scan = ReadFile.openFile(this.shoefile);
-		this.shoe = ReadFile.readShoeFile(scan);
-		ReadFile.closeFile(scan);
-		
-		// Open cmdfile and save its data to a LinkedList<String>.
-		scan = ReadFile.openFile(this.cmdfile);
-		commandslist = ReadFile.readCmdFile(scan);
-		ReadFile.closeFile(scan);
+		// Binary shoe files are mapped in memory and dealt from directly.
+		if ( ShoeFile.isShoeFile(this.shoefile) ) {
+			this.shoe = ShoeFile.mapShoeFile(this.shoefile);
+		} else {
+			scan = ReadFile.openFile(this.shoefile);
+			this.shoe = ReadFile.readShoeFile(scan);
+			ReadFile.closeFile(scan);
+		}
 		
-		// Set the commandsiterator to the beggining of the commands list.
-		commandsiterator = commandslist.iterator();
+		// Open cmdfile, its commands are read as they are needed.
+		CommandReader reader = CommandReader.openFile(this.cmdfile);
+		commands = reader;
 		
 		this.gameover = false;
 				
@@ -111,13 +118,13 @@ public class GameDebug extends GameBody{
 			this.playOneGame();
 			
 			// Check if there are no more commands.
-			if ( commandsiterator == null) 
+			if ( commands == null) 
 				gameover = true;	
 			
 			
 		}
 
-		
+		reader.close();
 		
 	}
 	
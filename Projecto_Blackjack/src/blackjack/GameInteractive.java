@@ -2,6 +2,8 @@ package blackjack;
 
 import java.util.Scanner;
 
+import blackjack.Strategies.Command;
+
 public class GameInteractive extends GameBody {
 
 	/**
@@ -32,7 +34,7 @@ public class GameInteractive extends GameBody {
 		super( arguments );
 		this.shoesize = arguments.getShoe();
 		this.shufflepercent = arguments.getShuffle();
-		this.statistics = new Statistics( arguments.getBalance() , shoesize );
+		this.createSeats( 1 , arguments.getBalance() , shoesize );
 	}
 
 	//***********************************************************************************************
@@ -41,22 +43,21 @@ public class GameInteractive extends GameBody {
 	 * This functions reads the input from keyboard
 	 * and returns it as valid command to be executed.
 	 * 
-	 * @param input
-	 * @return
+	 * @return	the command, or null if the input is not a valid command.
 	 */
-	public String determineCommand( ) {
+	public Command determineCommand( ) {
 		
 		String command = "q";
 		
-		System.out.println("");
+		listener.message("");
 		
 		if ( input.hasNext() ){
 		command = input.nextLine();
 		}
 		
-		System.out.println(command);
+		listener.command(command);
 		
-		return command;
+		return this.decodeCommand(command);
 	}
 	
 	/**
@@ -65,7 +66,10 @@ public class GameInteractive extends GameBody {
 	 * @param shoesize	-> number of 52-card decks.
 	 */
 	public void fillShoe( int shoesize ){
-		Deck shoe = new Deck( shoesize );
+		Deck shoe = new Deck( shoesize , this.random );
+		if ( this.csm )
+			shoe.setShuffleMode( Deck.ShuffleMode.CSM );
+		this.listener.shuffling();
 		shoe.shuffleCards();
 		this.shoe = shoe;
 	}
@@ -91,11 +95,16 @@ public class GameInteractive extends GameBody {
 			// Play one game of blackjack.
 			this.playOneGame();
 			
-			//Check if it is needed to reshuffle the shoe.
-			shoeplayed = (float)(this.statistics.getCardsPlayed() ) / (float)(this.shoesize * Deck.DECKSIZE ) * 100 ;
-			if ( shoeplayed >= shufflepercent) {
-				this.reshuffleDeck();
-				this.statistics.resetCardCounting();
+			if ( this.csm ) {
+				// Put the discards back into the machine.
+				this.collectDiscards();
+			} else {
+				//Check if it is needed to reshuffle the shoe.
+				shoeplayed = (float)(this.statistics.getCardsPlayed() ) / (float)(this.shoesize * Deck.DECKSIZE ) * 100 ;
+				if ( shoeplayed >= shufflepercent) {
+					this.reshuffleDeck();
+					this.statistics.resetCardCounting();
+				}
 			}
 			
 			// Check if the Player still has enough balance to play
@@ -0,0 +1,77 @@
+package blackjack;
+
+/**
+ * Receiver of the events of a game: the cards on the table, the commands and bets of the
+ * player, the results and every other message the game reports while it is played.
+ * The game never writes to the console itself, so it can be played without any output
+ * ( see {@link SilentListener} ) when only the final statistics matter.
+ *
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ */
+public interface GameListener {
+
+	/**
+	 * A line of text reported by the game.
+	 *
+	 * @param text		text of the message.
+	 */
+	void message( String text );
+
+	/**
+	 * The dealer's hand was shown.
+	 *
+	 * @param hand		dealer's hand.
+	 */
+	void dealerCards( Hand hand );
+
+	/**
+	 * One of the player's hands was shown.
+	 *
+	 * @param hand		player's hand.
+	 */
+	void playerCards( Hand hand );
+
+	/**
+	 * The player chose a command.
+	 *
+	 * @param command	command chosen.
+	 */
+	void command( String command );
+
+	/**
+	 * The player chose a command.
+	 *
+	 * @param command	command chosen.
+	 * @param amount	value of the bet for the bet command, or Strategies.PREVIOUSBET.
+	 */
+	void command( Strategies.Command command , int amount );
+
+	/**
+	 * A command can not be executed at this point of the game.
+	 *
+	 * @param command	command rejected.
+	 */
+	void illegalCommand( String command );
+
+	/**
+	 * The player placed a bet.
+	 *
+	 * @param bet		value of the bet.
+	 */
+	void bet( int bet );
+
+	/**
+	 * The bets were paid and the player has a new balance.
+	 *
+	 * @param balance	balance of the player.
+	 */
+	void balance( float balance );
+
+	/**
+	 * The shoe is being shuffled.
+	 */
+	void shuffling();
+
+}
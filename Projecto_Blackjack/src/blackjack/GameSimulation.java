@@ -1,5 +1,7 @@
 package blackjack;
 
+import blackjack.Strategies.Command;
+
 public class GameSimulation extends GameBody{
 
 	/**
@@ -20,9 +22,40 @@ public class GameSimulation extends GameBody{
 	private int numberOfShuffles;
 	
 	/**
-	 * counting cars strategy to use during simulation (combinations of BS, HL, AF)
+	 * number of shuffles performed so far.
+	 */
+	private int sNumber;
+	
+	/**
+	 * cards dealt by a continuous shuffling machine since the last shuffle was counted.
 	 */
-	private String strategy;
+	private int csmcards;
+	
+	/**
+	 * counting cars strategy of each seat during simulation (combinations of BS, HL, AF)
+	 */
+	private String[] strategy;
+	
+	/**
+	 * true for the seats whose strategy plays the hands with the Hi-Low strategy ( HL, HL-AF ),
+	 * false for the Basic strategy ( BS, BS-AF ).
+	 */
+	private boolean[] hilow;
+	
+	/**
+	 * true for the seats whose strategy bets with the Ace-Five strategy ( BS-AF, HL-AF ).
+	 */
+	private boolean[] acefive;
+	
+	/**
+	 * Corpus of shoes to replay instead of shuffling, or null.
+	 */
+	private ShoeCorpus corpus;
+	
+	/**
+	 * Index of the shoe of the corpus being played.
+	 */
+	private int corpusshoe;
 	
 	//***********************************************************************************************
 	
@@ -33,39 +66,111 @@ public class GameSimulation extends GameBody{
 	 * @param arguments
 	 */
 	public GameSimulation( Arguments arguments ) {
-		super( arguments );
+		this( arguments , new Strategies() );
+	}
+	
+	/**
+	 * Constructor for GameSimulation with strategies already built.
+	 * 
+	 * @param arguments
+	 * @param strategies	strategies of the simulation.
+	 */
+	private GameSimulation( Arguments arguments , Strategies strategies ) {
+		super( arguments , strategies );
 		this.shoesize = arguments.getShoe();
 		this.shufflepercent = arguments.getShuffle();
 		this.numberOfShuffles = arguments.getSNumber();
-		this.strategy = arguments.getStrategy();
-		this.statistics = new Statistics( arguments.getBalance() , shoesize );
+		this.strategy = arguments.getSeatStrategies();
+		this.hilow = new boolean[this.strategy.length];
+		this.acefive = new boolean[this.strategy.length];
+		for ( int s = 0 ; s < this.strategy.length ; s++ ){
+			this.hilow[s] = this.strategy[s].equals("HL") || this.strategy[s].equals("HL-AF");
+			this.acefive[s] = this.strategy[s].equals("BS-AF") || this.strategy[s].equals("HL-AF");
+		}
+		this.createSeats( this.strategy.length , arguments.getBalance() , shoesize );
+		this.corpus = null;
+		this.corpusshoe = 0;
+		if ( arguments.getCorpusFile() != null ) {
+			this.corpus = ShoeCorpus.openFile( arguments.getCorpusFile() );
+			if ( this.corpus.getShoeSize() != this.shoesize || this.corpus.getNumberOfShoes() == 0 || this.csm ) {
+				System.out.println("The corpus must have shoes of " + this.shoesize + " decks and can not be used with a CSM");
+				System.exit(0);
+			}
+		}
+	}
+	
+	/**
+	 * Constructor for one part of a larger simulation: it performs only a given number of
+	 * shuffles, with its own random source, and does not report its events.
+	 * The strategies only hold tables that are never changed, so they are shared.
+	 * 
+	 * @param arguments
+	 * @param numberOfShuffles	number of shuffles to perform.
+	 * @param random			random source used to shuffle the shoe.
+	 * @param strategies		strategies of the larger simulation.
+	 */
+	protected GameSimulation( Arguments arguments , int numberOfShuffles , RandomSource random , Strategies strategies ) {
+		this( arguments , strategies );
+		this.numberOfShuffles = numberOfShuffles;
+		this.random = random;
+		this.listener = new SilentListener();
 	}
 
 	//***********************************************************************************************
 	
 	/**
 	 * Functions that fills and shuffles the shoe with shoesize number of 52-card decks.
+	 * Only part of the shoe is played before reshuffling, so the shoe is shuffled lazily.
+	 * When replaying a corpus the shoe gets the first shoe of the corpus instead.
 	 * 
 	 * @param shoesize	-> number of 52-card decks.
 	 */
 	public void fillShoe( int shoesize ){
-		Deck shoe = new Deck( shoesize );
-		shoe.shuffleCards();
+		Deck shoe = new Deck( shoesize , this.random );
+		if ( this.corpus != null )
+			this.corpus.loadShoe( this.corpusshoe , shoe );
+		else if ( this.csm )
+			shoe.setShuffleMode( Deck.ShuffleMode.CSM );
+		else
+			shoe.setShuffleMode( Deck.ShuffleMode.LAZY );
+		if ( this.corpus == null ) {
+			this.listener.shuffling();
+			shoe.shuffleCards();
+		}
 		this.shoe = shoe;
 	}
+	
+	/**
+	 * Reshuffle the shoe, or, when replaying a corpus, put the next shoe of the
+	 * corpus in play. The simulation ends when the corpus runs out of shoes.
+	 * 
+	 * @Overriden Method from GameBody.
+	 */
+	public void reshuffleDeck(){
+		if ( this.corpus == null ) {
+			super.reshuffleDeck();
+			return;
+		}
+		this.corpusshoe++;
+		if ( this.corpusshoe < this.corpus.getNumberOfShoes() )
+			this.corpus.loadShoe( this.corpusshoe , this.shoe );
+		else
+			this.gameover = true;
+	}
 
 	/**
 	 * This method is used to determine the command the player should do when it is his
 	 * time to play. The player's action is simulated by the card counting strategies like
-	 * the Basic Strategies , High-Low Strategies and Ace-Five Strategies.
+	 * the Basic Strategies , High-Low Strategies and Ace-Five Strategies, the ones of the
+	 * seat playing. The value of the bet is left in the betamount field.
 	 * 
 	 * @Overriden Method from GameBody. 
 	 * 
 	 */
-	public String determineCommand() {
-		String str = "";
+	public Command determineCommand() {
+		Command command;
+		float trueCount;
 		
-		float trueCount = this.statistics.getTrueCount();
 		Hand dhand = this.dealer.getHand();
 		PHand phand = this.playinghand;
 		
@@ -75,28 +180,31 @@ public class GameSimulation extends GameBody{
 		int maxbet = this.getMaxbet();
 		int cardsplayed = this.statistics.getCardsPlayed();
 		
-		System.out.println("");
+		listener.message("");
 		
 		if (gamephase == 1){
-			if ( strategy.equals("BS") || strategy.equals("HL") ){
-				str = "b";
+			command = Command.BET;
+			if ( !this.acefive[this.seat] ){
+				this.betamount = Strategies.PREVIOUSBET;
 			}
 			else{
-				str = this.strategies.determineAceFiveStrategy(acefivecount, minbet, bet, maxbet, cardsplayed);				
+				this.betamount = this.strategies.determineAceFiveStrategy(acefivecount, minbet, bet, maxbet, cardsplayed, player.getBalance());				
 			}
 			
 		}else if (gamephase == 2){
-			str = "d";
+			command = Command.DEAL;
 		} else if ( gamephase == 3){
-			if ( strategy.equals("BS") || strategy.equals("BS-AF") ){
-				str = this.strategies.determineBasicStrategyCommand(phand , dhand);
+			if ( !this.hilow[this.seat] ){
+				command = this.strategies.determineBasicStrategyCommand(phand , dhand, this.canDouble());
 			}else{
-				str = this.strategies.determineHiLowStrategyCommand(trueCount, phand, dhand);
+				// The true count is only computed when the Hi-Low strategy needs it.
+				trueCount = this.statistics.getTrueCount();
+				command = this.strategies.determineHiLowStrategyCommand(trueCount, phand, dhand, this.canDouble(), this.canInsure());
 			}
 		} else
-			return "q";
-		System.out.println(str);
-		return str;
+			return Command.QUIT;
+		listener.command( command , this.betamount );
+		return command;
 	}
 	
 	
@@ -106,44 +214,111 @@ public class GameSimulation extends GameBody{
 	 */
 	public void playGames(){
 		
-		int sNumber = 0;
-		float shoeplayed = 0;
+		this.startGames();
+		
+		// Cycle of games.
+		while ( gameover != true ){
+			this.playRound();
+		}	
+		
+		this.finishGames();
+
+	}
+	
+	/**
+	 * Creates the shoe before the first game.
+	 */
+	public void startGames(){
+		
+		this.sNumber = 0;
+		this.csmcards = 0;
 		
 		// Creates a deck.
 		this.fillShoe( this.shoesize );
-		this.statistics.setShoesize(this.shoesize);		
+		for ( Statistics seatstatistics : this.seatstatistics )
+			seatstatistics.setShoesize(this.shoesize);
+	}
+	
+	/**
+	 * Plays one game of blackjack, reshuffles the shoe if needed and checks if the
+	 * simulation is over.
+	 * A continuous shuffling machine never reshuffles, so there a shuffle is counted
+	 * every time the cards dealt would have reached the cut card of a normal shoe.
+	 */
+	public void playRound(){
 		
-		// Cycle of games.
-		while ( gameover != true ){
-			// Play one game of blackjack.
-			this.playOneGame();
-			
+		float shoeplayed = 0;
+		
+		// Play one game of blackjack.
+		this.playOneGame();
+		
+		if ( this.csm ) {
+			// Put the discards back into the machine.
+			this.csmcards += this.shoesize * Deck.DECKSIZE - this.shoe.getNumberofcards();
+			this.collectDiscards();
+			shoeplayed = (float)(this.csmcards) / (float)(this.shoesize * Deck.DECKSIZE ) * 100 ;
+			if ( shoeplayed >= this.shufflepercent ) {
+				this.sNumber++;
+				this.csmcards = 0;
+			}
+		} else {
 			//Check if it is needed to reshuffle the shoe.
 			shoeplayed = (float)(this.statistics.getCardsPlayed() ) / (float)(this.shoesize * Deck.DECKSIZE ) * 100 ;
 			if ( shoeplayed >= this.shufflepercent ) {
 				this.reshuffleDeck();
-				sNumber++;
-
+				this.sNumber++;
 				this.statistics.resetCardCounting();
-	
 			}
-			
-			// Check if the number of games played matches the number of shuffles performed.
-			if( sNumber == this.numberOfShuffles )
-				gameover = true;
-			// Check if the Player still has enough balance to play.
-			if ( this.hasEnoughBalance(this.getMinbet()) == false )
-				gameover = true;
-			
-		}	
-		System.out.println("");
-		this.commandStatistics();
-
+		}
+		
+		// Check if the number of games played matches the number of shuffles performed.
+		if( this.sNumber == this.numberOfShuffles )
+			gameover = true;
+		// Check if any Player still has enough balance to play.
+		if ( this.anySeatHasEnoughBalance(this.getMinbet()) == false )
+			gameover = true;
 	}
 	
+	/**
+	 * Adds what was played by another simulation of the same table to this one, seat by
+	 * seat: the statistics, and what the player won ( or lost ) to the balance of the seat.
+	 * 
+	 * @param other	simulation with the same seats.
+	 */
+	public void merge( GameSimulation other ){
+		for ( int s = 0 ; s < this.players.length ; s++ ) {
+			this.seatstatistics[s].merge( other.seatstatistics[s] );
+			this.players[s].setBalance( this.players[s].getBalance() + other.players[s].getBalance() - this.seatstatistics[s].getInicialBalance() );
+		}
+	}
 	
+	/**
+	 * Getter for the number of player hands played, on every seat.
+	 * 
+	 * @return	number of player hands.
+	 */
+	public long getPlayerHands(){
+		long hands = 0;
+		for ( Statistics seatstatistics : this.seatstatistics )
+			hands += seatstatistics.getPlayerHands();
+		return hands;
+	}
 	
-	
-	
+	/**
+	 * Shows the statistics of the simulation, seat by seat when the table has more than one.
+	 */
+	public void finishGames(){
+		System.out.println("");
+		if ( this.players.length == 1 ) {
+			this.commandStatistics();
+			return;
+		}
+		for ( int s = 0 ; s < this.players.length ; s++ ) {
+			this.selectSeat(s);
+			System.out.println("Seat " + (s+1) + "	" + this.strategy[s]);
+			this.commandStatistics();
+		}
+		this.selectSeat(0);
+	}
 	
 }
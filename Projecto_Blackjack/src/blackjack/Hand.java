@@ -1,207 +1,192 @@
 package blackjack;
 
-import java.util.LinkedList;
+import java.util.Arrays;
 
 public class Hand {
 
 	//***********************************************************************************************
-	
-	/**
-	 * [Attribute] List of Cards in one Hand
-	 */
-	private LinkedList<Card> cards;
 
 	/**
-	 * [Attribute] Value of the sum of the cards in the hand
+	 * [Attribute] Cards in one Hand
 	 */
-	private int handvalue;
-	
+	private Card[] cards;
+
 	/**
 	 * [Attribute] Number of cards on the hand.
 	 */
 	private int numberofcards;
-	
+
 	/**
 	 * [Attribute] Number of Aces on the hand.
 	 */
 	private int numberofaces;
-	
+
 	/**
-	 * 
+	 * [Attribute] State of the hand ( see {@link HandState} ). Value, softness,
+	 * blackjack and pair of the hand are all read from the state.
 	 */
-	private int acesworth11;
-		
+	private int state;
+
 	//***********************************************************************************************
-	
+
 	/**
 	 *  Constructor for this Class
 	 */
 	public Hand (){
-		this.cards = new LinkedList<Card>();
-		this.handvalue = 0;
+		this.cards = new Card[11];
 		this.numberofcards = 0;
 		this.numberofaces = 0;
-		this.acesworth11 = 0;
+		this.state = HandState.EMPTY;
 	}
-	
+
 	//***********************************************************************************************
-	
+
 	/**
 	 *  Add a Card to the hand
-	 *  
+	 *
 	 *  @param c	Card added to the hand
 	 */
 	public void addCard ( Card c){
-		int cardvalue = c.getCardValue();
-		
-		if (cardvalue == 11)
+		if (c.getCardValue() == 11)
 			this.numberofaces ++;
-		this.cards.add(c);
+		if ( this.numberofcards == this.cards.length )
+			this.cards = Arrays.copyOf( this.cards , 2*this.cards.length );
+		this.cards[this.numberofcards] = c;
 		this.numberofcards ++;
-		this.handvalue = this.calculateHandValue();		
+		this.state = HandState.next( this.state , c.getCountIndex() );
 	}
-	
+
 	/**
 	 * Retrieve a Card from the hand
-	 * 
+	 *
 	 * @return	the last card from the hand.
 	 */
 	public Card retrieveCard () {
 		Card card;
-		card = this.cards.removeLast();
-		
+		this.numberofcards --;
+		card = this.cards[this.numberofcards];
+		this.cards[this.numberofcards] = null;
+
 		if (card.getCardValue() == 11)
 			this.numberofaces --;
-		
-		this.numberofcards --;
-		this.handvalue = this.calculateHandValue();
-		
-		return card;		
-	}	
+
+		// The state does not keep the cards, so it is rebuilt from the remaining ones.
+		this.state = HandState.EMPTY;
+		for ( int i = 0 ; i < this.numberofcards ; i++ )
+			this.state = HandState.next( this.state , this.cards[i].getCountIndex() );
+
+		return card;
+	}
 
 	/**
 	 * Get a Card at a specific position from the hand.
-	 * 
+	 *
 	 * @param i	->	index of card
 	 * @return	card at position [i] of the Hand.
 	 */
-	public Card getCard ( int i) {		
-		return this.cards.get(i);		
+	public Card getCard ( int i) {
+		return this.cards[i];
 	}
-	
+
 
 	/**
 	 *  Removes (clear) all cards from the hand
 	 */
 	public void clearHand (){
-		 this.cards.clear();
+		 Arrays.fill( this.cards , 0 , this.numberofcards , null );
 		 this.numberofcards = 0;
-		 this.handvalue = 0;
 		 this.numberofaces = 0;
-		 this.acesworth11 = 0;
+		 this.state = HandState.EMPTY;
 	}
 
 	/**
 	 * Setter for numberofcards
-	 * 
+	 *
 	 * @return numberofcards	-> quantity of cards in the hand
 	 */
 	public int getNumberOfCards(){
 		return this.numberofcards;
 	}
-	
+
 	/**
 	 * Getter of handvalue.
-	 * 
+	 *
 	 * @return handvalue	-> value of the hand
 	 */
 	public int getHandValue(){
-		return this.handvalue;
+		return HandState.getValue( this.state );
 	}
-	 
+
 	/**
 	 * Getter of numberofaces.
-	 * 
+	 *
 	 * @return Number of aces on the hand.
 	 */
 	public int getNumberofaces(){
 		return this.numberofaces;
 	}
 
+	/**
+	 * Getter of acesworth11.
+	 *
+	 * @return Number of aces on the hand worth 11 (0 or 1).
+	 */
 	public int getAcesworth11(){
-		return this.acesworth11;
+		return HandState.isSoft( this.state ) ? 1 : 0;
+	}
+
+	/**
+	 * Function that determines if Hand has 2 cards of the same value.
+	 *
+	 * @return	true if the Hand is a pair.
+	 */
+	public boolean isPair(){
+		return HandState.getPairIndex( this.state ) >= 0;
+	}
+
+	/**
+	 * Getter of state.
+	 *
+	 * @return state of the hand ( see {@link HandState} ).
+	 */
+	public int getState(){
+		return this.state;
 	}
-	
+
 	/**
 	 * List of Cards in the hand in string format
-	 * 
+	 *
 	 * @return listofcards	-> String representing the cards on the hand.
 	 */
 	public String listCards(){
-		 String listofcards = "";
+		 StringBuilder listofcards = new StringBuilder( 4*numberofcards );
 		 for ( int i = 0 ; i< numberofcards; i++)
 		 {
-			 listofcards += cards.get(i)+" " ;
+			 listofcards.append( cards[i] ).append(' ');
 		 }
-		 return listofcards;
+		 return listofcards.toString();
 	}
-	
+
 	/**
 	 * Function that determines if Hand is a BlackJack Hand
-	 * 
+	 *
 	 * @return	true if Hand is a Blackjack hand.
 	 * 			false otherwise.
 	 */
 	public boolean hasBlackJack() {
-		if ( this.getHandValue() == 21 && this.getNumberOfCards() == 2)
-			return true;
-		else
-			return false;
+		return HandState.isBlackJack( this.state );
 	}
-	
+
 	/**
 	 * Calculates the value of the card in hand taking into account
 	 * that ACES are worth 11 or 1.
-	 * 
+	 *
 	 * @return handsum		Value of the cards in the hand
 	 */
 	public int calculateHandValue() {
-		int handsum = 0;
-		Card card;
-		int cardvalue;
-		int numaces = 0;
-		
-		this.acesworth11 = this.numberofaces;
-		
-		// Calculate each card's contribution to the hand sum
-		for ( int i = 0 ; i< numberofcards ; i++)
-		 {
-			 // get the value of the current card
-			card = cards.get(i);
-			cardvalue = card.getCardValue();
-			
-			if ( cardvalue == 11 ) {	// Ace
-				numaces++;
-				handsum += 11;
-			} else if ( cardvalue == 10) { // Face Card
-				handsum +=10;
-			} else {	// Number Cards
-				handsum += cardvalue;
-			}
-		 }
-			
-		// if we have aces and our sum is > 21, set some/all of them
-		// to value 1 instead
-		while ( handsum > 21 && numaces > 0 ) {
-			handsum -= 10;
-			numaces --;
-			this.acesworth11 --;
-		}
-	
-
-	return handsum;	
+		return HandState.getValue( this.state );
 	}
 
-	
-	
+
+
 }
@@ -0,0 +1,231 @@
+package blackjack;
+
+/**
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ * Class that encodes everything the game needs to know about a hand in a single integer,
+ * the state of the hand: its hard value (every Ace worth 1), how many Aces it has, how
+ * many cards it has and, for hands of 2 cards, the value of the pair.
+ *
+ * The states are packed in an integer key:
+ * 	- bits 0-4: hard value ( 0-31, hands are never hit past a bust );
+ * 	- bits 5-6: number of Aces ( 0, 1 or 2 for 2 or more );
+ * 	- bits 7-8: number of cards ( 0, 1, 2 or 3 for 3 or more );
+ * 	- bits 9-12: count index of the pair plus one ( 0 if the hand is not a pair ).
+ *
+ * Only 127 keys can be reached from an empty hand ( NUMBEROFSTATES ). Each one gets a dense state id
+ * and the tables of this class are indexed by that id, so the value of a hand, its softness
+ * or the state after dealing it a card are all one array read.
+ *
+ */
+public final class HandState {
+
+	/**
+	 * Highest hard value kept by a state.
+	 */
+	private static final int MAXHARD = 31;
+
+	/**
+	 * Number of states reachable from an empty hand.
+	 */
+	public static final int NUMBEROFSTATES;
+
+	/**
+	 * State of an empty hand.
+	 */
+	public static final int EMPTY = 0;
+
+	/**
+	 * State after dealing a card to a state, indexed by state * Rank.COUNTS + count index of the card.
+	 */
+	private static final int[] NEXT;
+
+	/**
+	 * Packed key of each state.
+	 */
+	private static final int[] KEY;
+
+	/**
+	 * Value of each state, with an Ace worth 11 if it does not bust the hand.
+	 */
+	private static final byte[] VALUE;
+
+	/**
+	 * Flags of each state.
+	 */
+	private static final boolean[] SOFT;
+	private static final boolean[] BLACKJACK;
+
+	static {
+		int[] ids = new int[1 << 13];
+		int[] keys = new int[1 << 13];
+		int[] next = new int[(1 << 13) * Rank.COUNTS];
+		int numberofstates = 0;
+		int key;
+		int nextkey;
+
+		for ( int i = 0 ; i < ids.length ; i++ )
+			ids[i] = -1;
+
+		// Breadth first search of the keys reachable from an empty hand.
+		ids[0] = numberofstates;
+		keys[numberofstates++] = 0;
+		for ( int id = 0 ; id < numberofstates ; id++ ) {
+			key = keys[id];
+			for ( int r = 0 ; r < Rank.COUNTS ; r++ ) {
+				nextkey = nextKey( key , r );
+				if ( ids[nextkey] < 0 ) {
+					ids[nextkey] = numberofstates;
+					keys[numberofstates++] = nextkey;
+				}
+				next[id*Rank.COUNTS + r] = ids[nextkey];
+			}
+		}
+
+		NUMBEROFSTATES = numberofstates;
+		NEXT = new int[numberofstates * Rank.COUNTS];
+		System.arraycopy( next , 0 , NEXT , 0 , NEXT.length );
+		KEY = new int[numberofstates];
+		VALUE = new byte[numberofstates];
+		SOFT = new boolean[numberofstates];
+		BLACKJACK = new boolean[numberofstates];
+		for ( int id = 0 ; id < numberofstates ; id++ ) {
+			key = keys[id];
+			KEY[id] = key;
+			SOFT[id] = hard(key) + 10 <= 21 && aces(key) > 0;
+			VALUE[id] = (byte) ( SOFT[id] ? hard(key) + 10 : hard(key) );
+			BLACKJACK[id] = VALUE[id] == 21 && cards(key) == 2;
+		}
+	}
+
+	/**
+	 * Not to be instanced.
+	 */
+	private HandState(){
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * State of a hand after being dealt a card.
+	 *
+	 * @param state			state of the hand.
+	 * @param countindex	count index of the card ( see {@link Rank#getCountIndex()} ).
+	 * @return				new state of the hand.
+	 */
+	public static int next( int state , int countindex ){
+		return NEXT[ state*Rank.COUNTS + countindex ];
+	}
+
+	/**
+	 * Value of a hand, with an Ace worth 11 if it does not bust the hand.
+	 *
+	 * @param state		state of the hand.
+	 * @return			value of the hand.
+	 */
+	public static int getValue( int state ){
+		return VALUE[state];
+	}
+
+	/**
+	 * Value of a hand with every Ace worth 1.
+	 *
+	 * @param state		state of the hand.
+	 * @return			hard value of the hand.
+	 */
+	public static int getHardValue( int state ){
+		return hard( KEY[state] );
+	}
+
+	/**
+	 * Checks if a hand has an Ace worth 11.
+	 *
+	 * @param state		state of the hand.
+	 * @return			true if the hand is soft.
+	 */
+	public static boolean isSoft( int state ){
+		return SOFT[state];
+	}
+
+	/**
+	 * Number of Aces on a hand.
+	 *
+	 * @param state		state of the hand.
+	 * @return			0, 1 or 2 for 2 or more Aces.
+	 */
+	public static int getAces( int state ){
+		return aces( KEY[state] );
+	}
+
+	/**
+	 * Number of cards on a hand.
+	 *
+	 * @param state		state of the hand.
+	 * @return			0, 1, 2 or 3 for 3 or more cards.
+	 */
+	public static int getCards( int state ){
+		return cards( KEY[state] );
+	}
+
+	/**
+	 * Value of the pair, for hands of 2 cards of the same value.
+	 *
+	 * @param state		state of the hand.
+	 * @return			count index of the cards of the pair, -1 if the hand is not a pair.
+	 */
+	public static int getPairIndex( int state ){
+		return ( KEY[state] >>> 9 ) - 1;
+	}
+
+	/**
+	 * Checks if a hand is a BlackJack.
+	 *
+	 * @param state		state of the hand.
+	 * @return			true if the hand is a BlackJack.
+	 */
+	public static boolean isBlackJack( int state ){
+		return BLACKJACK[state];
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Packed key of a hand after being dealt a card.
+	 *
+	 * @param key			packed key of the hand.
+	 * @param countindex	count index of the card.
+	 * @return				packed key of the new hand.
+	 */
+	private static int nextKey( int key , int countindex ){
+		int hard = hard(key);
+		int aces = aces(key);
+		int cards = cards(key);
+		int pair = 0;
+		int first;
+
+		if ( cards == 1 ) {	// Second card, check if it makes a pair with the first.
+			first = ( aces == 1 ) ? 0 : hard - 1;
+			if ( first == countindex )
+				pair = countindex + 1;
+		}
+		hard = Math.min( hard + ( countindex == 0 ? 1 : countindex + 1 ) , MAXHARD );
+		aces = Math.min( aces + ( countindex == 0 ? 1 : 0 ) , 2 );
+		cards = Math.min( cards + 1 , 3 );
+
+		return hard | ( aces << 5 ) | ( cards << 7 ) | ( pair << 9 );
+	}
+
+	private static int hard( int key ){
+		return key & 0x1F;
+	}
+
+	private static int aces( int key ){
+		return ( key >>> 5 ) & 0x3;
+	}
+
+	private static int cards( int key ){
+		return ( key >>> 7 ) & 0x3;
+	}
+
+}
@@ -21,8 +21,21 @@ public class Main {
 			gb = new GameDebug(arguments);
 			break;
 		case ("-s"):
-			gb = new GameSimulation(arguments);
+			if ( arguments.getBatch() > 0 )
+				gb = new BatchSimulation(arguments);
+			else if ( arguments.getTables() > 0 )
+				gb = new FloorSimulation(arguments);
+			else if ( arguments.getThreads() > 0 )
+				gb = new ParallelSimulation(arguments);
+			else
+				gb = new GameSimulation(arguments);
 			break;		
+		case ("-c"):
+			ShoeFile.convertShoeFile( arguments.getShoeFile() , arguments.getOutFile() );
+			return;
+		case ("-k"):
+			ShoeCorpus.writeFile( arguments.getOutFile() , arguments.getShoe() , arguments.getSNumber() , new SplitMixRandom( arguments.getSeed() ) );
+			return;
 		case ("-g"):
 			//gb = new SwingBody();
 			break;
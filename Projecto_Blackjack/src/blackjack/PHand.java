@@ -23,19 +23,8 @@ public class PHand extends Hand {
 	//***********************************************************************************************
 	
 	public boolean canSplit() {
-		Card card1;
-		Card card2;
-		
-		if ( this.getNumberOfCards() == 2) {	// Check if hand has at least and only 2 cards.
-			card1 = this.getCard(0);
-			card2 = this.getCard(1);
-			if ( card1.getCardValue() == card2.getCardValue() )
-				return true;
-			else
-				return false;
-		}
-		else
-			return false;		
+		// Hand must have only 2 cards, of the same value.
+		return this.isPair();
 	}
 
 	public boolean getInsurance() {
@@ -70,14 +59,25 @@ public class PHand extends Hand {
 		this.split = split;
 	}
 
+	/**
+	 * Side rules done on the hand, as the bits of an integer ( see {@link Strategies#INSURED} ).
+	 * 
+	 * @return	side rules of the hand.
+	 */
+	public int getSideRules() {
+		return ( insurance ? Strategies.INSURED : 0 ) | ( doublee ? Strategies.DOUBLED : 0 )
+				| ( surrender ? Strategies.SURRENDERED : 0 ) | ( split ? Strategies.SPLITTED : 0 );
+	}
+	
 	/**
 	 *  Removes (clear) all cards from the hand
 	 */
 	public void clearHand (){
-		 this.clearHand();
+		 super.clearHand();
 		 this.insurance = false;
 		 this.surrender = false;
 		 this.doublee = false;
+		 this.split = false;
 	}
 
 	
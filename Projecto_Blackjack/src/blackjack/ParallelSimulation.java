@@ -0,0 +1,112 @@
+package blackjack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ * Simulation played by several threads. The shuffles of the simulation are split in tasks of
+ * SHUFFLESPERTASK shuffles, each one a simulation of its own ( with its own dealer, player, shoe
+ * and statistics ) started with the initial balance. The tasks are run by a ForkJoinPool and
+ * their statistics are merged in the order of the tasks.
+ *
+ * Every task gets its own random source, split from the source of the simulation before any
+ * task starts, so the result depends only on the seed and not on the number of threads.
+ *
+ */
+public class ParallelSimulation extends GameSimulation {
+
+	/**
+	 * Number of shuffles played by each task.
+	 */
+	public static final int SHUFFLESPERTASK = 50;
+
+	/**
+	 * [Field] Arguments of the simulation, given to every task.
+	 */
+	private final Arguments arguments;
+
+	/**
+	 * [Field] Number of threads playing the tasks.
+	 */
+	private final int threads;
+
+	/**
+	 * [Field] Total number of shuffles to perform.
+	 */
+	private final int shuffles;
+
+	//***********************************************************************************************
+
+	/**
+	 * Constructor for ParallelSimulation.
+	 *
+	 * @param arguments		arguments of the simulation ( the -p option gives the number of threads ).
+	 */
+	public ParallelSimulation( Arguments arguments ) {
+		super( arguments );
+		this.arguments = arguments;
+		this.threads = arguments.getThreads();
+		this.shuffles = arguments.getSNumber();
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Plays the tasks of the simulation and shows the merged statistics. The balance shown
+	 * is the initial balance plus what the player won ( or lost ) in every task.
+	 *
+	 * @Overriden Method from GameSimulation.
+	 */
+	public void playGames(){
+
+		List<Callable<GameSimulation>> tasks = new ArrayList<Callable<GameSimulation>>();
+		ForkJoinPool pool = new ForkJoinPool( this.threads );
+		GameSimulation game;
+
+		for ( int first = 0 ; first < this.shuffles ; first += SHUFFLESPERTASK )
+			tasks.add( newTask( Math.min( SHUFFLESPERTASK , this.shuffles - first ) , this.random.split() ) );
+
+		try{
+			for ( Future<GameSimulation> result : pool.invokeAll( tasks ) ) {
+				game = result.get();
+				this.merge( game );
+			}
+		}
+		catch(Exception e){
+			System.out.println("The parallel simulation failed: " + e.getCause());
+			System.exit(0);
+		}
+		finally{
+			pool.shutdown();
+		}
+
+		this.finishGames();
+	}
+
+	/**
+	 * Creates a task playing a number of shuffles.
+	 *
+	 * @param numberOfShuffles	number of shuffles of the task.
+	 * @param random			random source of the task.
+	 * @return					the task, returning the simulation it played.
+	 */
+	private Callable<GameSimulation> newTask( final int numberOfShuffles , final RandomSource random ){
+		return new Callable<GameSimulation>() {
+			public GameSimulation call(){
+				GameSimulation game = new GameSimulation( arguments , numberOfShuffles , random , strategies );
+
+				game.startGames();
+				while ( game.gameover != true )
+					game.playRound();
+				return game;
+			}
+		};
+	}
+
+}
@@ -1,14 +1,16 @@
 package blackjack;
 
-import java.util.*;
+import java.util.Arrays;
 
 public class Player {
 
 		
 	/**
-	 * [Field] List of hands the player holds.
+	 * [Field] Hands the player holds, in the first numberofhands positions.
+	 * The hands are reused from game to game (and the array only grows when the
+	 * player splits more than ever before), so no hand is created while playing.
 	 */
-	private List<PHand> hands;
+	private PHand[] hands;
 	
 	/**
 	 * [Field] Player's monetary balance.
@@ -33,7 +35,9 @@ public class Player {
 	 * @param value		initial balance for the Player
 	 */
 	public Player ( float balance){
-		this.hands = new LinkedList<PHand>();
+		this.hands = new PHand[4];
+		for ( int i = 0 ; i < this.hands.length ; i++ )
+			this.hands[i] = new PHand();
 		this.balance = balance;
 		this.numberofhands = 0;
 		this.bet = 0;
@@ -85,13 +89,16 @@ public class Player {
 	}
 
 	/**
-	 * Creates a new Hand for the player.
+	 * Gives the player a new (empty) Hand, reusing one of his hands.
 	 */
 	public void newHand () {
 		
-		PHand newhand = new PHand();
-		
-		this.hands.add ( newhand );
+		if ( this.numberofhands == this.hands.length ) {
+			this.hands = Arrays.copyOf( this.hands , 2*this.hands.length );
+			for ( int i = this.numberofhands ; i < this.hands.length ; i++ )
+				this.hands[i] = new PHand();
+		}
+		this.hands[this.numberofhands].clearHand();
 		this.numberofhands ++;
 		
 	}
@@ -103,7 +110,7 @@ public class Player {
 	 * @return	specified player's hand.
 	 */
 	public PHand getHand ( int handindex ){
-		return this.hands.get(handindex);		
+		return this.hands[handindex];		
 	}
 	
 	/**
@@ -124,7 +131,8 @@ public class Player {
 	 *  Removes (clear) all cards from all the player's hands.
 	 */
 	public void clearHands (){
-		 this.hands.clear();
+		 for ( int i = 0 ; i < this.numberofhands ; i++ )
+			 this.hands[i].clearHand();
 		 this.numberofhands = 0;
 	}	
 	
@@ -143,13 +151,11 @@ public class Player {
 		card = hand.retrieveCard();
 		hand.setSplit(true);
 		
-		newhand = new PHand();
+		newHand();
+		newhand = getHand (numberofhands-1);
 		newhand.addCard( card );
 		newhand.setSplit(true);
 		
-		hands.add ( newhand );
-		numberofhands ++;
-		
 		balance = balance - bet;
 	}
 	
@@ -0,0 +1,31 @@
+package blackjack;
+
+/**
+ * Source of random numbers used to shuffle the shoe.
+ * Implementations are not required to be thread safe: every shoe owns its source, and
+ * independent sources are obtained with split() instead of being shared between threads.
+ *
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ */
+public interface RandomSource {
+
+	/**
+	 * Returns a uniformly distributed value between 0 (inclusive) and bound (exclusive).
+	 *
+	 * @param bound		upper bound (exclusive), must be positive.
+	 * @return			random value in [0, bound).
+	 */
+	int nextInt( int bound );
+
+	/**
+	 * Creates a new, independent source from this one. The sequence of sources split from
+	 * a source depends only on its seed, so it can be used to give reproducible streams to
+	 * parallel simulations.
+	 *
+	 * @return	a new random source.
+	 */
+	RandomSource split();
+
+}
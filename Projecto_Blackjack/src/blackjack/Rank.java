@@ -7,15 +7,30 @@ public enum Rank {
 	ACE(11) , DEUCE(2) , THREE(3) , FOUR(4) , FIVE(5) , SIX(6)	, SEVEN(7) ,
 	EIGHT(8) , NINE(9) , TEN(10) , JACK(10) , QUEEN(10), KING(10); 
 	
+	/*
+	 * Number of different card values: A, 2-9 and T (10, J, Q, K).
+	 */
+	public static final int COUNTS = 10;
+	
 	private int rankvalue;
 	
+	private int countindex;
+	
 	Rank ( int rankvalue){
 		this.rankvalue = rankvalue;
+		this.countindex = ( rankvalue == 11 ) ? 0 : rankvalue - 1;
 	}
 
 	public int getRankValue(){
 		return rankvalue;
 	}
+	
+	/*
+	 * Index of the card value in a composition vector: 0 for A, 1-8 for 2-9 and 9 for T.
+	 */
+	public int getCountIndex(){
+		return countindex;
+	}
 };
 
 
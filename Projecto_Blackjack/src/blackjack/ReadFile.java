@@ -161,7 +161,7 @@ public class ReadFile {
 			break;
 		}
 			
-		return new Card( r, s );
+		return Card.of( r, s );
 
 	}
 	
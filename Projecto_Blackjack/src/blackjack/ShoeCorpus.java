@@ -0,0 +1,187 @@
+package blackjack;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ * A corpus of shoes shuffled ahead of time and stored in a file, so several simulations
+ * ( for example one per strategy ) can be played over exactly the same cards.
+ *
+ * The file has a header followed by the shoes, one after the other, with one byte per
+ * card ( see {@link Card#getOrdinal()} ) in the order the cards are dealt.
+ * The header holds, as 4 byte integers:
+ * 	- the magic number "BJSC";
+ * 	- the number of 52-card decks in each shoe;
+ * 	- the number of shoes.
+ *
+ */
+public class ShoeCorpus {
+
+	/**
+	 * Magic number at the start of every corpus file ( "BJSC" ).
+	 */
+	public static final int MAGIC = 0x424A5343;
+
+	/**
+	 * Size of the header in bytes.
+	 */
+	public static final int HEADERSIZE = 4 * 3;
+
+	/**
+	 * [Field] Mapping of the corpus file.
+	 */
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * [Field] Number of 52-card decks in each shoe.
+	 */
+	private final int shoesize;
+
+	/**
+	 * [Field] Number of shoes in the corpus.
+	 */
+	private final int numberofshoes;
+
+	//***********************************************************************************************
+
+	/**
+	 * Corpus constructor.
+	 *
+	 * @param buffer			mapping of the corpus file.
+	 * @param shoesize			number of 52-card decks in each shoe.
+	 * @param numberofshoes		number of shoes.
+	 */
+	private ShoeCorpus( MappedByteBuffer buffer , int shoesize , int numberofshoes ){
+		this.buffer = buffer;
+		this.shoesize = shoesize;
+		this.numberofshoes = numberofshoes;
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Getter for shoesize.
+	 *
+	 * @return	number of 52-card decks in each shoe.
+	 */
+	public int getShoeSize(){
+		return this.shoesize;
+	}
+
+	/**
+	 * Getter for numberofshoes.
+	 *
+	 * @return	number of shoes in the corpus.
+	 */
+	public int getNumberOfShoes(){
+		return this.numberofshoes;
+	}
+
+	/**
+	 * Puts the cards of one of the shoes of the corpus in a deck, replacing its cards.
+	 *
+	 * @param index		index of the shoe.
+	 * @param deck		deck with the same size as the shoes of the corpus.
+	 */
+	public void loadShoe( int index , Deck deck ){
+		deck.loadCards( this.buffer , HEADERSIZE + index * this.shoesize * Deck.DECKSIZE );
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Maps a corpus file in memory. The file must hold exactly the shoes of the header, and
+	 * every card byte must be the ordinal of a card.
+	 *
+	 * @param directory		Takes the directory of the file.
+	 * @return				the corpus.
+	 */
+	public static ShoeCorpus openFile( String directory ){
+		MappedByteBuffer buffer = null;
+		int shoesize;
+		int numberofshoes;
+		byte card;
+
+		try( FileChannel channel = FileChannel.open( Paths.get(directory) , StandardOpenOption.READ ) ){
+			buffer = channel.map( FileChannel.MapMode.READ_ONLY , 0 , channel.size() );
+		}
+		catch(Exception e){
+			System.out.println("Could not read the corpus file");
+			System.exit(0);
+		}
+
+		if( buffer.limit() < HEADERSIZE || buffer.getInt(0) != MAGIC ){
+			System.out.println("Invalid corpus file");
+			System.exit(0);
+		}
+		shoesize = buffer.getInt(4);
+		numberofshoes = buffer.getInt(8);
+		if( shoesize < 1 || numberofshoes < 0 || (long)numberofshoes * shoesize * Deck.DECKSIZE != buffer.limit() - HEADERSIZE ){
+			System.out.println("Invalid corpus file");
+			System.exit(0);
+		}
+		for( int k = HEADERSIZE; k < buffer.limit(); k++ ){
+			card = buffer.get(k);
+			if( card < 0 || card >= Deck.DECKSIZE ){
+				System.out.println("Invalid corpus file");
+				System.exit(0);
+			}
+		}
+		return new ShoeCorpus( buffer , shoesize , numberofshoes );
+	}
+
+	/**
+	 * Shuffles a number of shoes and writes them to a corpus file.
+	 *
+	 * @param directory		directory of the corpus file to write.
+	 * @param shoesize		number of 52-card decks in each shoe.
+	 * @param numberofshoes	number of shoes to write.
+	 * @param random		random source used to shuffle the shoes.
+	 */
+	public static void writeFile( String directory , int shoesize , int numberofshoes , RandomSource random ){
+		ByteBuffer buffer = ByteBuffer.allocate( shoesize * Deck.DECKSIZE );
+		byte[] shoe = buffer.array();
+		byte card;
+		int j;
+
+		if( (long)numberofshoes * shoe.length > Integer.MAX_VALUE - HEADERSIZE ){
+			System.out.println("Corpus too large, the file can have at most " + (Integer.MAX_VALUE - HEADERSIZE)/shoe.length + " shoes");
+			System.exit(0);
+		}
+		for( int k = 0; k < shoe.length; k++ )
+			shoe[k] = (byte) ( k % Deck.DECKSIZE );
+
+		try( FileChannel channel = FileChannel.open( Paths.get(directory) , StandardOpenOption.CREATE ,
+				StandardOpenOption.WRITE , StandardOpenOption.TRUNCATE_EXISTING ) ){
+			ByteBuffer header = ByteBuffer.allocate( HEADERSIZE );
+			header.putInt( MAGIC );
+			header.putInt( shoesize );
+			header.putInt( numberofshoes );
+			header.position( HEADERSIZE );
+			ShoeFile.writeBuffer( channel , header );
+
+			for( int n = 0; n < numberofshoes; n++ ){
+				// Fisher-Yates shuffle, continuing from the previous shoe.
+				for( int i = shoe.length-1; i > 0; i-- ){
+					j = random.nextInt( i + 1 );
+					card = shoe[i];
+					shoe[i] = shoe[j];
+					shoe[j] = card;
+				}
+				buffer.position( shoe.length );
+				ShoeFile.writeBuffer( channel , buffer );
+			}
+		}
+		catch(Exception e){
+			System.out.println("Could not write the corpus file");
+			System.exit(0);
+		}
+	}
+
+}
@@ -0,0 +1,170 @@
+package blackjack;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Scanner;
+
+/**
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ * Class used to read and write shoe files in binary format.
+ *
+ * A binary shoe file has a header followed by one byte per card, in the order the cards
+ * are dealt. Each byte is the ordinal of the card ( see {@link Card#getOrdinal()} ).
+ * The header holds, as 4 byte integers:
+ * 	- the magic number "BJSH";
+ * 	- the number of cards on the file;
+ * 	- the number of cards of each value ( A, 2-9, T ), 10 integers.
+ *
+ * The file is mapped in memory and the shoe deals straight from the mapping, so no card is
+ * copied when a shoe is loaded; the cards are only read once, to check them.
+ *
+ */
+public class ShoeFile {
+
+	/**
+	 * Magic number at the start of every binary shoe file ( "BJSH" ).
+	 */
+	public static final int MAGIC = 0x424A5348;
+
+	/**
+	 * Size of the header in bytes.
+	 */
+	public static final int HEADERSIZE = 4 * ( 2 + Rank.COUNTS );
+
+	/**
+	 * Checks if a file is a binary shoe file.
+	 *
+	 * @param directory		Takes the directory of the file.
+	 * @return				true if the file starts with the magic number.
+	 */
+	public static boolean isShoeFile( String directory ){
+		ByteBuffer magic = ByteBuffer.allocate(4);
+
+		try( FileChannel channel = FileChannel.open( Paths.get(directory) , StandardOpenOption.READ ) ){
+			while( magic.hasRemaining() && channel.read(magic) >= 0 );
+		}
+		catch(Exception e){
+			System.out.println("Could not find a file");
+			System.exit(0);
+		}
+		return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+	}
+
+	/**
+	 * Maps a binary shoe file in memory and creates a shoe that deals from it.
+	 * The header is checked against the cards: every byte must be the ordinal of a card,
+	 * and the number of cards of each value must be the one on the header.
+	 *
+	 * @param directory		Takes the directory of the file.
+	 * @return				returns the playable deck.
+	 */
+	public static Deck mapShoeFile( String directory ){
+		MappedByteBuffer buffer = null;
+		int[] counts = new int[Rank.COUNTS];
+		int[] cardcounts = new int[Rank.COUNTS];
+		int numberofcards;
+		int total = 0;
+		byte card;
+
+		try( FileChannel channel = FileChannel.open( Paths.get(directory) , StandardOpenOption.READ ) ){
+			buffer = channel.map( FileChannel.MapMode.READ_ONLY , 0 , channel.size() );
+		}
+		catch(Exception e){
+			System.out.println("Could not read the shoe file");
+			System.exit(0);
+		}
+
+		if( buffer.limit() < HEADERSIZE || buffer.getInt(0) != MAGIC ){
+			System.out.println("Invalid shoe file");
+			System.exit(0);
+		}
+		numberofcards = buffer.getInt(4);
+		if( numberofcards < 0 || numberofcards > buffer.limit() - HEADERSIZE ){
+			System.out.println("Invalid shoe file");
+			System.exit(0);
+		}
+		for( int i = 0; i < Rank.COUNTS; i++ ){
+			counts[i] = buffer.getInt( 8 + 4*i );
+			total += counts[i];
+		}
+		for( int k = 0; k < numberofcards; k++ ){
+			card = buffer.get( HEADERSIZE + k );
+			if( card < 0 || card >= Deck.DECKSIZE ){
+				System.out.println("Invalid shoe file");
+				System.exit(0);
+			}
+			cardcounts[ Card.ofOrdinal(card).getCardRank().getCountIndex() ]++;
+		}
+		if( total != numberofcards || !Arrays.equals( counts , cardcounts ) ){
+			System.out.println("Invalid shoe file");
+			System.exit(0);
+		}
+
+		buffer.position( HEADERSIZE );
+		buffer.limit( HEADERSIZE + numberofcards );
+		return new Deck( buffer.slice() , counts );
+	}
+
+	/**
+	 * Converts a shoe file in text format ( see {@link ReadFile#readShoeFile(Scanner)} )
+	 * to the binary format.
+	 *
+	 * @param textfile		directory of the shoe file in text format.
+	 * @param shoefile		directory of the binary shoe file to write.
+	 */
+	public static void convertShoeFile( String textfile , String shoefile ){
+		Scanner scan = ReadFile.openFile( textfile );
+		ByteBuffer buffer = ByteBuffer.allocate( 1 << 16 );
+		int[] counts = new int[Rank.COUNTS];
+		int numberofcards = 0;
+		Card card;
+
+		try( FileChannel channel = FileChannel.open( Paths.get(shoefile) , StandardOpenOption.CREATE ,
+				StandardOpenOption.WRITE , StandardOpenOption.TRUNCATE_EXISTING ) ){
+			// Cards go after the header, which is only known at the end.
+			channel.position( HEADERSIZE );
+			while( scan.hasNext() ){
+				card = ReadFile.decodeCard( scan.next() );
+				buffer.put( (byte) card.getOrdinal() );
+				counts[ card.getCardRank().getCountIndex() ]++;
+				numberofcards++;
+				if( !buffer.hasRemaining() )
+					writeBuffer( channel , buffer );
+			}
+			writeBuffer( channel , buffer );
+
+			buffer.putInt( MAGIC );
+			buffer.putInt( numberofcards );
+			for( int i = 0; i < Rank.COUNTS; i++ )
+				buffer.putInt( counts[i] );
+			channel.position( 0 );
+			writeBuffer( channel , buffer );
+		}
+		catch(Exception e){
+			System.out.println("Could not write the shoe file");
+			System.exit(0);
+		}
+		ReadFile.closeFile( scan );
+	}
+
+	/**
+	 * Writes the content of a buffer to a channel and clears the buffer.
+	 *
+	 * @param channel	channel to write to.
+	 * @param buffer	buffer with the bytes to write.
+	 * @throws Exception	if the channel can not be written.
+	 */
+	static void writeBuffer( FileChannel channel , ByteBuffer buffer ) throws Exception {
+		buffer.flip();
+		while( buffer.hasRemaining() )
+			channel.write( buffer );
+		buffer.clear();
+	}
+
+}
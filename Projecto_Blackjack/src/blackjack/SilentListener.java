@@ -0,0 +1,40 @@
+package blackjack;
+
+/**
+ * Listener that ignores every event of the game, used to run simulations without
+ * spending their time writing to the console ( -q option ).
+ *
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ */
+public class SilentListener implements GameListener {
+
+	public void message( String text ){
+	}
+
+	public void dealerCards( Hand hand ){
+	}
+
+	public void playerCards( Hand hand ){
+	}
+
+	public void command( String command ){
+	}
+
+	public void command( Strategies.Command command , int amount ){
+	}
+
+	public void illegalCommand( String command ){
+	}
+
+	public void bet( int bet ){
+	}
+
+	public void balance( float balance ){
+	}
+
+	public void shuffling(){
+	}
+
+}
@@ -0,0 +1,139 @@
+package blackjack;
+
+/**
+ * Fast, non synchronized and splittable random generator (SplitMix64 algorithm).
+ * Two generators created with the same seed produce exactly the same values, and so
+ * do the generators split from them.
+ *
+ * @author Filipe Silvério
+ * @author Miguel Laranjeira
+ *
+ */
+public class SplitMixRandom implements RandomSource {
+
+	/**
+	 * Increment used by the generators created directly from a seed.
+	 */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * [Field] Current state of the generator.
+	 */
+	private long seed;
+
+	/**
+	 * [Field] Increment added to the state on every step (always odd).
+	 */
+	private final long gamma;
+
+	//***********************************************************************************************
+
+	/**
+	 * Create a generator from a seed.
+	 *
+	 * @param seed	initial seed.
+	 */
+	public SplitMixRandom( long seed ){
+		this( seed , GOLDEN_GAMMA );
+	}
+
+	/**
+	 * Create a generator with a specific state and increment.
+	 *
+	 * @param seed	initial state.
+	 * @param gamma	increment.
+	 */
+	private SplitMixRandom( long seed , long gamma ){
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Returns the next 64 pseudo-random bits.
+	 *
+	 * @return	random long value.
+	 */
+	public long nextLong(){
+		return mix64( nextSeed() );
+	}
+
+	/**
+	 * Returns a uniformly distributed value between 0 (inclusive) and bound (exclusive).
+	 * The value is made from the 31 high bits of the next long: a power of two bound keeps
+	 * the high bits of it, any other bound takes the remainder and rejects the values that
+	 * would make the result biased.
+	 *
+	 * @Overriden Method from RandomSource.
+	 *
+	 * @param bound		upper bound (exclusive), must be positive.
+	 * @return			random value in [0, bound).
+	 */
+	@Override
+	public int nextInt( int bound ){
+		int u = (int) ( nextLong() >>> 33 );
+		int m = bound - 1;
+		int r;
+
+		if ( (bound & m) == 0 )		// Power of two
+			return (int) ( (bound * (long) u) >> 31 );
+		// Reject the values that would make the result biased.
+		for ( r = u % bound ; u - r + m < 0 ; r = u % bound )
+			u = (int) ( nextLong() >>> 33 );
+		return r;
+	}
+
+	/**
+	 * Creates a new, independent generator from this one: its state and its increment are
+	 * both taken from this generator, which advances two steps.
+	 *
+	 * @Overriden Method from RandomSource.
+	 *
+	 * @return	a new random source.
+	 */
+	@Override
+	public RandomSource split(){
+		return new SplitMixRandom( nextLong() , mixGamma( nextSeed() ) );
+	}
+
+	//***********************************************************************************************
+
+	/**
+	 * Advances the state of the generator.
+	 *
+	 * @return	new state.
+	 */
+	private long nextSeed(){
+		return this.seed += this.gamma;
+	}
+
+	/**
+	 * Scrambles the bits of a state into a random value.
+	 *
+	 * @param z		state.
+	 * @return		random value.
+	 */
+	private static long mix64( long z ){
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Creates an increment for a split generator. The increment must be odd and
+	 * have enough bit transitions to give a good sequence.
+	 *
+	 * @param z		state.
+	 * @return		increment.
+	 */
+	private static long mixGamma( long z ){
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		if ( Long.bitCount( z ^ (z >>> 1) ) < 24 )
+			z ^= 0xaaaaaaaaaaaaaaaaL;
+		return z;
+	}
+
+}
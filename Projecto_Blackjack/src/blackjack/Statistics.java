@@ -18,13 +18,15 @@ public class Statistics {
 	
 	private int shoesize;
 	private final int decksize = Deck.DECKSIZE;
-	private int cardsplayed;
 	
 	//*************************************//
 	
-	private int runningCount;
-	private float trueCount;
-	private int acefiveCount;
+	/*
+	 * Running counts of every counting system, indexed by the ordinal of the system, and
+	 * number of cards played. The seats of a table share the counter of the table.
+	 * The true count is only computed when it is asked for.
+	 */
+	private final CardCounter counter;
 	
 	
 	//******************************************************************************************
@@ -40,7 +42,17 @@ public class Statistics {
 		this.gamesPlayed = 0;
 		this.inicialBalance = inicialBalance;
 		this.shoesize = shoesize;
-		this.cardsplayed = 0;		
+		this.counter = new CardCounter( CountingSystem.values() );
+	}
+	
+	/*
+	 * Statistics of another seat of a table: the results are its own, the card counting
+	 * is the one of the table.
+	 */
+	public Statistics( int inicialBalance, Statistics table ) {
+		this.inicialBalance = inicialBalance;
+		this.shoesize = table.shoesize;
+		this.counter = table.counter;
 	}
 
 	//******************************************************************************************
@@ -83,19 +95,33 @@ public class Statistics {
 	}
 
 	public int getRunningCount() {
-		return runningCount;
+		return counter.getCount( CountingSystem.HILO.ordinal() );
 	}
 
 	public float getTrueCount() {
-		return trueCount;
+		return getTrueCount( CountingSystem.HILO );
 	}
 
 	public int getAcefiveCount() {
-		return acefiveCount;
+		return counter.getCount( CountingSystem.ACEFIVE.ordinal() );
+	}
+	
+	public int getCount( CountingSystem system ) {
+		return counter.getCount( system.ordinal() );
+	}
+	
+	/*
+	 * Running count of a system divided by the number of decks remaining in the shoe
+	 * ( rounded up ).
+	 */
+	public float getTrueCount( CountingSystem system ) {
+		int cardsremaning = ((this.shoesize*this.decksize)-counter.getCardsCounted());
+		int decksremaning = (int) Math.ceil((float)(cardsremaning)/(float)(this.decksize));
+		return (float)(counter.getCount( system.ordinal() ))/(float)(decksremaning);
 	}
 	
 	public int getCardsPlayed() {
-		return cardsplayed;
+		return counter.getCardsCounted();
 	}
 	
 	//******************************************************************************************
@@ -135,91 +161,86 @@ public class Statistics {
 	public void incrementGamesPlayed() {
 		this.gamesPlayed++;
 	}
-
-	public void addsubRunningCount(int addsub, int decksremaning ) {
-		this.runningCount += addsub;
-		setTrueCount( decksremaning );
-	}
-
-	public void setTrueCount( int decksRemaning ) {
-		this.trueCount = (float)(this.runningCount)/(float)(decksRemaning);
-	}
-
-	public void addsubAcefiveCount(int addsub) {
-		this.acefiveCount += addsub;
-	}
 	
 	//******************************************************************************************
 		
-	public void updateRunningCount( Card c ){
-		int cardsremaning = ((this.shoesize*this.decksize)-this.cardsplayed);
-		int decksremaning = (int) Math.ceil((float)(cardsremaning)/(float)(this.decksize));
-		int addsub;
-		addsub = Strategies.decodeHiLowCardValue(c);
-		this.addsubRunningCount(addsub, decksremaning);
-	}
-	
-	public void updateacefivesCount( Card c ){
-		int addsub;
-		addsub = Strategies.decodeAceFiveCardValue(c);
-		this.addsubAcefiveCount(addsub);
-	}
-	
 	public void updateCardCounting( Card c ){
-		this.cardsplayed++;
-		updateRunningCount( c );
-		updateacefivesCount( c );
+		counter.count( c.getCountIndex() );
 	}
 	
 	public void resetCardCounting(){
-		this.runningCount = 0;
-		this.trueCount = 0;
-		this.acefiveCount = 0;
-		this.cardsplayed = 0;
+		counter.reset();
 	}
 		
 	
 	public void updateHandStatistics ( Result result) {
+		addHandStatistics( result , 1 );
+	}
+	
+	public void updateGameStatistics () {
+		addGameStatistics( 1 );
+	}
+	
+	/*
+	 * Adds a number of hands with the same result, for the simulations that keep their
+	 * own counters ( see BatchSimulation ).
+	 */
+	public void addHandStatistics ( Result result , int hands ) {
 		
 		switch( result ){
 		case LOSEBYBJ:
-			this.dealerBJs ++;
-			this.losses ++;
+			this.dealerBJs += hands;
+			this.losses += hands;
 			break;
 		case LOSE:
-			this.losses ++;
+			this.losses += hands;
 			break;
 		case TIEBYBJ:
-			this.dealerBJs ++;
-			this.playerBJs ++;
-			this.pushes ++;
+			this.dealerBJs += hands;
+			this.playerBJs += hands;
+			this.pushes += hands;
 			break;
 		case TIE:
-			this.pushes ++;
+			this.pushes += hands;
 			break;
 		case WIN:
-			this.wins ++;
+			this.wins += hands;
 			break;
 		case WINBYBJ:
-			this.playerBJs ++;
-			this.wins ++;
+			this.playerBJs += hands;
+			this.wins += hands;
 			break;
 		}
 			
-		this.playerHands ++;		
+		this.playerHands += hands;		
 		
 	}
 	
-	public void updateGameStatistics () {
-		this.dealerHands++;
-		this.gamesPlayed++;		
+	public void addGameStatistics ( int games ) {
+		this.dealerHands += games;
+		this.gamesPlayed += games;		
+	}
+	
+	/*
+	 * Adds the results of the games of another Statistics to this one ( the card
+	 * counting is not merged ).
+	 */
+	public void merge( Statistics other ) {
+		this.playerBJs += other.playerBJs;
+		this.dealerBJs += other.dealerBJs;
+		this.playerHands += other.playerHands;
+		this.dealerHands += other.dealerHands;
+		this.wins += other.wins;
+		this.losses += other.losses;
+		this.pushes += other.pushes;
+		this.gamesPlayed += other.gamesPlayed;
 	}
 
 	public void printCardCounting(){
-		System.out.println("RunningCount ="+this.runningCount);
-		System.out.println("TrueCount ="+this.trueCount);
-		System.out.println("AceFiveCount="+this.acefiveCount);
-		System.out.println("Number of Cards played so far ="+this.cardsplayed);
+		System.out.println("RunningCount ="+this.getRunningCount());
+		System.out.println("TrueCount ="+this.getTrueCount());
+		System.out.println("AceFiveCount="+this.getAcefiveCount());
+		System.out.println("Number of Cards played so far ="+this.getCardsPlayed());
 	}
 	
 }
@@ -1,6 +1,6 @@
 package blackjack;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
 /** 
  * @author Filipe Silvério
@@ -26,19 +26,85 @@ public class Strategies {
 	private final String[][] pairTable = new String[10][10];
 	
 	/**
-	 * Hash map that stores the Decision Class containing the commands for a specific and set of hands.
+	 * Basic strategy compiled from the three tables, indexed by hand state * Rank.COUNTS + count
+	 * index of the dealer's up card ( see {@link HandState} ): the ordinal of the command of the
+	 * tables ( double, surrender and split included ).
 	 */
-	private final HashMap<String, Decisions> HMap = new HashMap<String, Decisions>();
+	private final byte[] basicTable = new byte[HandState.NUMBEROFSTATES * Rank.COUNTS];
+	
+	/**
+	 * Basic strategy command when the command of basicTable can not be done: hit or stand
+	 * instead of double and surrender, and the command for the value of the hand instead of split.
+	 */
+	private final byte[] fallbackTable = new byte[HandState.NUMBEROFSTATES * Rank.COUNTS];
+	
+	/**
+	 * Hi-Low deviations ( Illustrious 18 and Fab4 ), indexed by player row * DEALERSCORES + dealer
+	 * score: the true count from which decision1 is done instead of decision2.
+	 */
+	private final int[] hedgeNumbers = new int[PLAYERROWS * DEALERSCORES];
+	
+	/**
+	 * Ordinal of the command done when the true count reaches the hedge number, NODEVIATION if the
+	 * hand has no deviation.
+	 */
+	private final byte[] decision1 = new byte[PLAYERROWS * DEALERSCORES];
+	
+	/**
+	 * Ordinal of the command done below the hedge number ( or when decision1 can not be done ).
+	 */
+	private final byte[] decision2 = new byte[PLAYERROWS * DEALERSCORES];
+	
+	/**
+	 * Rows of the deviation tables: one per player score, and one for a pair of tens ( "TT" ).
+	 */
+	private static final int PLAYERROWS = 33;
+	
+	/**
+	 * Row of the deviation tables for a pair of tens.
+	 */
+	private static final int TENSROW = 32;
+	
+	/**
+	 * Columns of the deviation tables: dealer scores up to 11 ( an Ace ).
+	 */
+	private static final int DEALERSCORES = 12;
+	
+	/**
+	 * Value of decision1 for hands without deviation.
+	 */
+	private static final byte NODEVIATION = -1;
+	
+	/**
+	 * Bet value meaning "bet the same as before" ( the minimum bet if there was no bet yet ).
+	 */
+	public static final int PREVIOUSBET = Integer.MIN_VALUE;
+	
+	/**
+	 * Side rules done on a hand, as the bits of an integer ( see {@link PHand#getSideRules()} ).
+	 */
+	public static final int INSURED = 1;
+	public static final int DOUBLED = 2;
+	public static final int SURRENDERED = 4;
+	public static final int SPLITTED = 8;
 	
 	//***********************************************************************************************	
 	
 	/**
 	 * 
 	 * Enum of commands so we can associate them as the strings asked from the terminal.
+	 * The game executes the commands directly, the strings are only used to read the
+	 * commands of the player and to show them.
 	 *
 	 */
 	public enum Command{
-		STAND("s"), HIT("h"), SPLIT("p"), DOUBLE("2"), INSURANCE("i"), SURRENDER("u"), BASIC("#B");
+		STAND("s"), HIT("h"), SPLIT("p"), DOUBLE("2"), INSURANCE("i"), SURRENDER("u"), BASIC("#B"),
+		BET("b"), DEAL("d"), BALANCE("$"), HELP("help"), ADVICE("ad"), STATISTICS("st"), QUIT("q");
+		
+		/**
+		 * Every command, indexed by its ordinal. Private, so the decoding tables can not be changed.
+		 */
+		private static final Command[] COMMANDS = values();
 		
 		private String decodedCommands;
 		
@@ -49,52 +115,35 @@ public class Strategies {
 		public String getDecodedCommands(){
 			return decodedCommands;
 		}
-	};
-
-	/**
-	 * 
-	 * Class used to store the two possible commands for the Illustrious 18 and Fab4 strategies in the has map.
-	 *
-	 */
-	class Decisions{
-		
-		private int hedgeNumber;
-		private Command decision1;
-		private Command decision2;
-		
-		public Decisions( int hedgeNumber, Command opt1, Command opt2 ){
-			this.hedgeNumber = hedgeNumber;
-			this.decision1 = opt1;
-			this.decision2 = opt2;
-		}
 		
-		public int showDecisionsHedgeNumber(){
-			return this.hedgeNumber;
-		}
-		public Command showFirstDecisionsCommand(){
-			return this.decision1;
-		}
-		public Command showSecondDecisionsComand(){
-			return this.decision2;
+		/**
+		 * Command with an ordinal, as stored in the strategy tables.
+		 * 
+		 * @param index		ordinal of the command.
+		 * @return		the command.
+		 */
+		public static Command ofIndex( int index ){
+			return COMMANDS[index];
 		}
-
-		
 		
 		/**
-		 * @Override	Override of the class decisions to string.
+		 * Command for a string asked from the terminal.
+		 * 
+		 * @param s		string of the command ( without arguments ).
+		 * @return		the command, or null if there is no such command.
 		 */
-		public String toString() {
-			return "Decisions [hedgeNumber=" + hedgeNumber + ", decision1="
-					+ decision1 + ", decision2=" + decision2 + "]";
+		public static Command decode( CharSequence s ){
+			for ( Command c : COMMANDS )
+				if ( c != BASIC && c.decodedCommands.contentEquals(s) )
+					return c;
+			return null;
 		}
-		
-		
-	}
+	};
 
 	//***********************************************************************************************
 	
 	/**
-	 * Strategy constructor that fills the strategy tables and the hash map with commands(strings).
+	 * Strategy constructor that fills the strategy tables with commands(strings) and the deviation tables.
 	 */
 	public Strategies() {
 		
@@ -108,10 +157,13 @@ public class Strategies {
 		//Pairs table
 		fillPairsTable();
 		
+		//Tables indexed by hand state
+		compileBasicTables();
+		
 		
 	//HI-LO STRATEGY
 		//Illustrous 18 and Fab4
-		fillHashMap();
+		fillDeviations();
 		
 			
 	}
@@ -266,87 +318,137 @@ public class Strategies {
 	}
 	
 	
+	/**
+	 * Compiles the three basic strategy tables into basicTable and fallbackTable, for every
+	 * hand state and dealer's up card. The table of a hand is chosen like it was done for each
+	 * decision: the pair table for pairs, the soft table for hands with one Ace worth 11 and the
+	 * hard table for the others. States the strategy is never asked about ( busted hands, hands
+	 * of one card ) stand.
+	 */
+	private void compileBasicTables(){
+		int index;
+		int value;
+		int dealerScore;
+		String s;
+		
+		for( int state = 0; state < HandState.NUMBEROFSTATES; state++ ){
+			value = HandState.getValue(state);
+			for( int up = 0; up < Rank.COUNTS; up++ ){
+				index = state*Rank.COUNTS + up;
+				dealerScore = ( up == 0 ) ? 11 : up + 1;
+				
+				s = getTableCommand( state, value, dealerScore, false );
+				this.basicTable[index] = (byte) decodeBasicCommand( s, false ).ordinal();
+				if( s != null && s.equals("P") ){
+					// Without splitting the pair is played as any other hand of the same value.
+					s = getTableCommand( state, value, dealerScore, true );
+					if( s == null )
+						s = "H";
+				}
+				this.fallbackTable[index] = (byte) decodeBasicCommand( s, true ).ordinal();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the command of the basic strategy tables for a hand.
+	 * 
+	 * @param state			State of the player's hand.
+	 * @param value			Value of the player's hand.
+	 * @param dealerScore	Dealer score.
+	 * @param nopair		true to ignore the pair table.
+	 * @return				Command has a string, or null if no table has the hand.
+	 */
+	private String getTableCommand( int state, int value, int dealerScore, boolean nopair ){
+		int pair = HandState.getPairIndex(state);
+		
+		if( pair >= 0 && !nopair ){
+			return getPairTableCommand( ( pair == 0 ) ? 11 : pair + 1, dealerScore );
+		}
+		else if( HandState.getAces(state) == 1 && HandState.isSoft(state) ){
+			if( value >= 13 && value <= 21 )
+				return getSoftTableCommand( value, dealerScore );
+		}
+		else if( value >= 5 && value <= 21 && HandState.getCards(state) >= 2 ){
+			return getHardTableCommand( value, dealerScore );
+		}
+		return null;
+	}
+	
 	/**
 	 * Gets the string from the basic strategy tables and converts it to the Command ENUM type.
 	 * 
-	 * @param s		String returned by basic strategy tables
-	 * @param h		Player hand to check if its possible to do certain commands(DOULBE and SURRENDER):
-	 * @return		Basic strategy Command ENUM type.
+	 * @param s			String returned by basic strategy tables, or null.
+	 * @param fallback	false for the command of the table, true for the command to do when
+	 * 					the player can not double or surrender.
+	 * @return			Basic strategy Command ENUM type.
 	 */
-	public Command decodeBasicCommand( String s, PHand h ){
-			
-		Command comm;
+	private static Command decodeBasicCommand( String s, boolean fallback ){
+		
+		if( s == null )
+			return Command.STAND;
 		
 		switch( s ){
 		case("H"):
-			comm = Command.HIT;
-			break;
+			return Command.HIT;
 		case("P"):
-			comm = Command.SPLIT;
-			break;
+			return Command.SPLIT;
 		case("S"):
-			// This is only called for the Pairs table so we are sure the hand is splitable.
-			comm = Command.STAND;
-			break;
+			return Command.STAND;
 		case("Dh"):
-			// Double se tiver duas cartas e nao pode ter sido feito nenhuma side rule anteriormente.
-			if( h.getNumberOfCards() == 2 && !h.getInsurance() && !h.getDoublee() && !h.getSurrender() ){
-				comm = Command.DOUBLE;
-			}else{
-				comm = Command.HIT;
-			}
-			break;
+			return fallback ? Command.HIT : Command.DOUBLE;
 		case("Ds"):
-			if( h.getNumberOfCards() == 2 && !h.getInsurance() && !h.getDoublee() && !h.getSurrender() ){
-				comm = Command.DOUBLE;
-			}else{
-				comm = Command.STAND;
-			}
-			break;
+			return fallback ? Command.STAND : Command.DOUBLE;
 		case("Rh"):
-			if( h.getNumberOfCards() == 2 && !h.getInsurance() && !h.getDoublee() && !h.getSurrender() && !h.getSplit() ){
-				comm = Command.SURRENDER;
-			}else{
-				comm = Command.STAND;
-			}
-			break;
+			return fallback ? Command.STAND : Command.SURRENDER;
 		default:
-			comm =Command.BASIC;
-			break;
-		}
-			return comm;
+			return Command.BASIC;
 		}
+	}
 
 	/**
-	 * Function to determine the string command from the Basic strategy and use it as an input parameter in the terminal.
+	 * Function to determine the command from the Basic strategy.
+	 * Double ( or surrender ) is only done with 2 cards and no side rule done before, and
+	 * split only if the hand was not insured, otherwise the fallback command is done.
+	 * 
+	 * @param ph		Received hand from player.
+	 * @param dh		Received hand from dealer.
+	 * @param candouble	true if the player has the balance to double the bet.
+	 * @return			Returns the command from the Basic strategy.
+	 */
+	public Command determineBasicStrategyCommand( PHand ph, Hand dh, boolean candouble ){
+		return determineBasicStrategyCommand( ph.getState(), ph.getSideRules(), dh.getCard(0).getCountIndex(), candouble );
+	}
+	
+	/**
+	 * Function to determine the command from the Basic strategy, for a hand given by its state.
 	 * 
-	 * @param ph	Received hand from player.
-	 * @param dh	Received hand from dealer.
-	 * @return		Returns the string command from the Basic strategy to use as a input parameter in the terminal.
-	 */
-	public String determineBasicStrategyCommand( PHand ph, Hand dh ){
-		Command c;
-		
-		// condicao if para a tabela par
-		if( ph.getNumberOfCards() == 2 && ph.getCard(0).getCardValue() == ph.getCard(1).getCardValue() )
-		{
-			String s = getPairTableCommand( ph.getCard(0).getCardValue(), dh.getHandValue() );
-			c = decodeBasicCommand( s, ph );
-		}
-		else if ( ph.getNumberofaces() != 0 && ph.getAcesworth11() == ph.getNumberofaces() )
-		{
-		//condicao else para a tabela soft
-			String s = getSoftTableCommand( ph.getHandValue(), dh.getHandValue() );
-			c = decodeBasicCommand( s, ph );
-		}
-		else
-		{
-		//condicao else if para a tabela hard
-			String s = getHardTableCommand( ph.getHandValue(), dh.getHandValue() );
-			c = decodeBasicCommand( s, ph );
+	 * @param state		State of the player's hand ( see {@link HandState} ).
+	 * @param siderules	Side rules done on the player's hand ( INSURED, DOUBLED, SURRENDERED, SPLITTED ).
+	 * @param upcard	Count index of the dealer's up card.
+	 * @param candouble	true if the player has the balance to double the bet.
+	 * @return			Returns the command from the Basic strategy.
+	 */
+	public Command determineBasicStrategyCommand( int state, int siderules, int upcard, boolean candouble ){
+		int index = state*Rank.COUNTS + upcard;
+		Command c = Command.ofIndex( this.basicTable[index] );
+		boolean twocards = HandState.getCards(state) == 2;
+		boolean possible;
+		
+		switch( c ){
+		case DOUBLE:
+			possible = candouble && twocards && ( siderules & ( INSURED | DOUBLED | SURRENDERED ) ) == 0;
+			break;
+		case SURRENDER:
+			possible = twocards && siderules == 0;
+			break;
+		case SPLIT:
+			possible = ( siderules & INSURED ) == 0;
+			break;
+		default:
+			return c;
 		}
-
-		return c.getDecodedCommands();
+		return possible ? c : Command.ofIndex( this.fallbackTable[index] );
 	}
 	
 	//***********************************************************************************************
@@ -358,111 +460,130 @@ public class Strategies {
 	 * @return		1, 0 or -1 depending on the card value
 	 */
 	public static final int decodeHiLowCardValue( Card c ){
-		int cardValue = c.getCardValue();
-		if( cardValue >= 2 && cardValue <=6 ){
-			return 1;
-		} else if( cardValue >= 7 && cardValue <= 9 ){
-			return 0;
-		} else if( cardValue == 10 || cardValue == 11 ){
-			return -1;
-		}
-		return 999;
+		return CountingSystem.HILO.getWeight( c.getCountIndex() );
 	}
 
 	/**
-	 * Function that fills the hash map content.
+	 * Function that fills the deviation tables with the Illustrious 18 and Fab4.
+	 * The insurance deviation ( true count >= 3 ) and the 15vT deviations are specific
+	 * rules checked in decodeHiLowStrategy.
 	 */
-	public void fillHashMap(){
+	public void fillDeviations(){
+		Arrays.fill( this.decision1 , NODEVIATION );
+		
 		//Illustrious18
-		Decisions decision0 = new Decisions( 3, Command.INSURANCE, Command.INSURANCE );
-		Decisions decision1 = new Decisions( 0, Command.STAND, Command.HIT );
-		//Decisions decision2 = new Decisions( 4, Command.STAND, Command.HIT );
-		Decisions decision3 = new Decisions( 5, Command.SPLIT, Command.STAND );
-		Decisions decision4 = new Decisions( 4, Command.SPLIT, Command.STAND );
-		Decisions decision5 = new Decisions( 4, Command.DOUBLE, Command.HIT );
-		Decisions decision6 = new Decisions( 2, Command.STAND, Command.HIT );
-		Decisions decision7 = new Decisions( 3, Command.STAND, Command.HIT );
-		Decisions decision8 = new Decisions( 1, Command.DOUBLE, Command.HIT );
-		Decisions decision9 = new Decisions( 1, Command.DOUBLE, Command.HIT );
-		Decisions decision10 = new Decisions( 4, Command.DOUBLE, Command.HIT );
-		Decisions decision11 = new Decisions( 3, Command.DOUBLE, Command.HIT );
-		Decisions decision12 = new Decisions( 5, Command.STAND, Command.HIT );
-		Decisions decision13 = new Decisions( -1, Command.STAND, Command.HIT );
-		Decisions decision14 = new Decisions( 0, Command.STAND, Command.HIT );
-		Decisions decision15 = new Decisions( -2, Command.STAND, Command.HIT );
-		Decisions decision16 = new Decisions( -1, Command.STAND, Command.HIT );
-		Decisions decision17 = new Decisions( -2, Command.STAND, Command.HIT );
-
-		HMap.put("Insurance", decision0);
-		HMap.put("16vT", decision1);
-		//HMap.put("15vT", decision2);
-		HMap.put("TTv5", decision3);
-		HMap.put("TTv6", decision4);
-		HMap.put("10vT", decision5);
-		HMap.put("12v3", decision6);
-		HMap.put("12v2", decision7);
-		HMap.put("11vA", decision8);
-		HMap.put("9v2", decision9);
-		HMap.put("10vA", decision10);
-		HMap.put("9v7", decision11);
-		HMap.put("16v9", decision12);
-		HMap.put("13v2", decision13);
-		HMap.put("12v4", decision14);
-		HMap.put("12v5", decision15);
-		HMap.put("12v6", decision16);
-		HMap.put("13v3", decision17);
+		addDeviation( "16vT", 0, Command.STAND, Command.HIT );
+		//addDeviation( "15vT", 4, Command.STAND, Command.HIT );
+		addDeviation( "TTv5", 5, Command.SPLIT, Command.STAND );
+		addDeviation( "TTv6", 4, Command.SPLIT, Command.STAND );
+		addDeviation( "10vT", 4, Command.DOUBLE, Command.HIT );
+		addDeviation( "12v3", 2, Command.STAND, Command.HIT );
+		addDeviation( "12v2", 3, Command.STAND, Command.HIT );
+		addDeviation( "11vA", 1, Command.DOUBLE, Command.HIT );
+		addDeviation( "9v2", 1, Command.DOUBLE, Command.HIT );
+		addDeviation( "10vA", 4, Command.DOUBLE, Command.HIT );
+		addDeviation( "9v7", 3, Command.DOUBLE, Command.HIT );
+		addDeviation( "16v9", 5, Command.STAND, Command.HIT );
+		addDeviation( "13v2", -1, Command.STAND, Command.HIT );
+		addDeviation( "12v4", 0, Command.STAND, Command.HIT );
+		addDeviation( "12v5", -2, Command.STAND, Command.HIT );
+		addDeviation( "12v6", -1, Command.STAND, Command.HIT );
+		addDeviation( "13v3", -2, Command.STAND, Command.HIT );
 		
 		//Fab4
-		Decisions decision18 = new Decisions( 3, Command.SURRENDER, Command.BASIC );
-		//Decisions decision19 = new Decisions( 0, Command.SURRENDER, Command.BASIC );
-		Decisions decision20 = new Decisions( 2, Command.SURRENDER, Command.BASIC );
-		Decisions decision21 = new Decisions( 1, Command.SURRENDER, Command.BASIC );
+		addDeviation( "14vT", 3, Command.SURRENDER, Command.BASIC );
+		//addDeviation( "15vT", 0, Command.SURRENDER, Command.BASIC );
+		addDeviation( "15v9", 2, Command.SURRENDER, Command.BASIC );
+		addDeviation( "15vA", 1, Command.SURRENDER, Command.BASIC );
 		
-		HMap.put("14vT", decision18);
-		//HMap.put("15vT", decision19);
-		HMap.put("15v9", decision20);
-		HMap.put("15vA", decision21);
+	}
+	
+	/**
+	 * Adds a deviation to the tables, replacing the one of the same hand if there is one.
+	 * 
+	 * @param hand			hand as "PvD": player score ( or "TT" for a pair of tens ), "v" and
+	 * 						dealer score ( "T" for 10, "A" for an Ace ), like "16vT" or "TTv5".
+	 * @param hedgeNumber	true count from which opt1 is done.
+	 * @param opt1			command done when the true count reaches hedgeNumber.
+	 * @param opt2			command done otherwise ( BASIC for the basic strategy ).
+	 */
+	public void addDeviation( String hand, int hedgeNumber, Command opt1, Command opt2 ){
+		int v = hand.indexOf('v');
+		String playerString = hand.substring( 0, v );
+		String dealerString = hand.substring( v + 1 );
+		int playerRow;
+		int dealerScore;
+		int index;
+		
+		if( playerString.equals("TT") ){
+			playerRow = TENSROW;
+		} else {
+			playerRow = Integer.parseInt(playerString);
+		}
+		if( dealerString.equals("T") ){
+			dealerScore = 10;
+		} else if( dealerString.equals("A") ){
+			dealerScore = 11;
+		} else {
+			dealerScore = Integer.parseInt(dealerString);
+		}
 		
+		index = playerRow*DEALERSCORES + dealerScore;
+		this.hedgeNumbers[index] = hedgeNumber;
+		this.decision1[index] = (byte) opt1.ordinal();
+		this.decision2[index] = (byte) opt2.ordinal();
 	}
 	
 	/**
-	 * 	Checks extra conditions to the tables, if none match, gets the command from the hash map.
+	 * 	Checks extra conditions to the tables, if none match, gets the command from the deviation tables.
 	 * 
 	 * @param trueCount		Running Count/Decks left.
 	 * @param ph			Received hand from player.
 	 * @param dh			Received hand from dealer.
+	 * @param candouble		true if the player has the balance to double the bet.
+	 * @param caninsure		true if the player has the balance to insure the bet.
+	 * @return				Decoded command for Hi-Low strategy.
+	 */
+	public Command decodeHiLowStrategy( float trueCount, PHand ph, Hand dh, boolean candouble, boolean caninsure ){
+		return decodeHiLowStrategy( trueCount, ph.getState(), ph.getSideRules(), ph.getCard(0).getCountIndex(), dh.getCard(0).getCountIndex(), candouble, caninsure );
+	}
+	
+	/**
+	 * 	Checks extra conditions to the tables, if none match, gets the command from the deviation tables,
+	 * for a hand given by its state.
+	 * 
+	 * @param trueCount		Running Count/Decks left.
+	 * @param state			State of the player's hand ( see {@link HandState} ).
+	 * @param siderules		Side rules done on the player's hand ( INSURED, DOUBLED, SURRENDERED, SPLITTED ).
+	 * @param firstcard		Count index of the first card of the player's hand.
+	 * @param upcard		Count index of the dealer's up card.
+	 * @param candouble		true if the player has the balance to double the bet.
+	 * @param caninsure		true if the player has the balance to insure the bet.
 	 * @return				Decoded command for Hi-Low strategy.
 	 */
-	public Command decodeHiLowStrategy( float trueCount, PHand ph, Hand dh ){
-		String hashInput;
-		String playerString;
-		String dealerString;
+	public Command decodeHiLowStrategy( float trueCount, int state, int siderules, int firstcard, int upcard, boolean candouble, boolean caninsure ){
+		int playerRow;
+		int playerScore = HandState.getValue(state);
+		int dealerScore = ( upcard == 0 ) ? 11 : upcard + 1;
+		boolean twocards = HandState.getCards(state) == 2;
+		int index;
 
 		
-		// Player score to String
-		if( ph.getHandValue() == 20 && ph.getCard(0).getCardValue() == 10 ){
-				playerString = "TT";
+		// Player score to row of the deviation tables
+		if( playerScore == 20 && firstcard == Rank.COUNTS - 1 ){
+			playerRow = TENSROW;
 		} else {
-			playerString = Integer.toString(ph.getHandValue());
+			playerRow = playerScore;
 		}
-		//Dealer score to String
-		if( dh.getHandValue() == 10 ){
-			dealerString = "T";
-		} else if( dh.getHandValue() == 11 ){
-			dealerString = "A";
-		} else{
-			dealerString = Integer.toString(dh.getHandValue());
-		}
-		
-		hashInput = playerString + "v" + dealerString;
+		index = playerRow*DEALERSCORES + dealerScore;
 		
 		// Illustrious 18 - Specific rule - Insurance
-		if ( dh.getNumberofaces() == 1 && trueCount >= 3 && ph.getNumberOfCards() == 2 && !ph.getInsurance() && !ph.getDoublee() && !ph.getSurrender() && !ph.getSplit() ){
+		if ( caninsure && upcard == 0 && trueCount >= 3 && twocards && siderules == 0 ){
 			return Command.INSURANCE;
 		}
 		// Illustrious 18 + Fab 4 - Specific rule - 15vT
-		else if( hashInput.equals("15vT") ){
-			if( trueCount >= 0 && trueCount <= 3 && ph.getNumberOfCards() == 2 && !ph.getInsurance() && !ph.getDoublee() && !ph.getSurrender() && !ph.getSplit() ) {
+		else if( playerRow == 15 && dealerScore == 10 ){
+			if( trueCount >= 0 && trueCount <= 3 && twocards && siderules == 0 ) {
 				return Command.SURRENDER;
 			}else if( trueCount >= 4 ){
 				return Command.STAND;
@@ -470,15 +591,13 @@ public class Strategies {
 				return Command.HIT;
 			}
 		}
-		// Illustrious 18 + Fab 4 - All other rules - Access by HashMap
-		else if( HMap.get(hashInput) != null ){
-			int i = HMap.get(hashInput).hedgeNumber;
-			if( trueCount >= i ){
+		// Illustrious 18 + Fab 4 - All other rules - Access by the deviation tables
+		else if( this.decision1[index] != NODEVIATION ){
+			if( trueCount >= this.hedgeNumbers[index] ){
 				// Function that check if it is possible to do the side rule received by decision1.
-				Command comm = HMap.get(hashInput).decision1;
-				return checkCommandRestrictions( comm, ph, hashInput );
+				return checkCommandRestrictions( state, siderules, index, candouble );
 			}else{
-				return HMap.get(hashInput).decision2;
+				return Command.ofIndex( this.decision2[index] );
 			}
 			
 		}else{
@@ -488,20 +607,39 @@ public class Strategies {
 	
 	/**
 	 * Checks if the command received was BASIC. If so gets the command from the 
-	 * basic strategy otherwise retrieves the command(String) from Hi-Low strategy.
+	 * basic strategy otherwise retrieves the command from Hi-Low strategy.
 	 * 
 	 * @param trueCount		Running Count/Decks left
 	 * @param ph			Received hand from player
 	 * @param dh			Received hand from dealer
-	 * @return				Returns the string command from the Hi-Low strategy to use as a input parameter in the terminal.
+	 * @param candouble		true if the player has the balance to double the bet.
+	 * @param caninsure		true if the player has the balance to insure the bet.
+	 * @return				Returns the command from the Hi-Low strategy.
+	 */
+	public Command determineHiLowStrategyCommand( float trueCount, PHand ph, Hand dh, boolean candouble, boolean caninsure ){
+		return determineHiLowStrategyCommand( trueCount, ph.getState(), ph.getSideRules(), ph.getCard(0).getCountIndex(), dh.getCard(0).getCountIndex(), candouble, caninsure );
+	}
+	
+	/**
+	 * Command from the Hi-Low strategy for a hand given by its state ( see
+	 * {@link #decodeHiLowStrategy(float, int, int, int, int, boolean, boolean)} ).
+	 * 
+	 * @param trueCount		Running Count/Decks left
+	 * @param state			State of the player's hand.
+	 * @param siderules		Side rules done on the player's hand.
+	 * @param firstcard		Count index of the first card of the player's hand.
+	 * @param upcard		Count index of the dealer's up card.
+	 * @param candouble		true if the player has the balance to double the bet.
+	 * @param caninsure		true if the player has the balance to insure the bet.
+	 * @return				Returns the command from the Hi-Low strategy.
 	 */
-	public String determineHiLowStrategyCommand( float trueCount, PHand ph, Hand dh ){
-		Command comm = decodeHiLowStrategy( trueCount, ph, dh );
+	public Command determineHiLowStrategyCommand( float trueCount, int state, int siderules, int firstcard, int upcard, boolean candouble, boolean caninsure ){
+		Command comm = decodeHiLowStrategy( trueCount, state, siderules, firstcard, upcard, candouble, caninsure );
 		
 		if( comm == Command.BASIC ){
-			return determineBasicStrategyCommand( ph, dh );
+			return determineBasicStrategyCommand( state, siderules, upcard, candouble );
 		}else{
-			return comm.getDecodedCommands();
+			return comm;
 		}
 		
 	}
@@ -509,29 +647,31 @@ public class Strategies {
 	/**
 	 * If the decision1 command is SPLIT, DOUBLE or SURRENDER, checks if is possible to execute the command.
 	 * 
-	 * @param comm			takes an Command as input.
-	 * @param ph			takes a player hand as input.
-	 * @param hashInput		receives the position of the command on the hash table.
+	 * @param state			state of the player's hand.
+	 * @param siderules		side rules done on the player's hand.
+	 * @param index			position of the hand on the deviation tables.
+	 * @param candouble		true if the player has the balance to double the bet.
 	 * @return				returns the possible command.
 	 */
-	public Command checkCommandRestrictions( Command comm, PHand ph, String hashInput ){
+	public Command checkCommandRestrictions( int state, int siderules, int index, boolean candouble ){
+		Command comm = Command.ofIndex( this.decision1[index] );
+		boolean twocards = HandState.getCards(state) == 2;
+		
 		if( comm == Command.SPLIT ){
-			if( ph.getNumberOfCards() == 2 && !ph.getInsurance() && !ph.getDoublee() && !ph.getSurrender()){
-				return HMap.get(hashInput).decision1;
+			if( twocards && ( siderules & ( INSURED | DOUBLED | SURRENDERED ) ) == 0 ){
+				return comm;
 			}
-			return HMap.get(hashInput).decision2;
+			return Command.ofIndex( this.decision2[index] );
 		} 
 		else if( comm == Command.DOUBLE ){
-			if( ph.getNumberOfCards() == 2 && !ph.getInsurance() && !ph.getDoublee() && !ph.getSurrender()){
-				return HMap.get(hashInput).decision1;
+			if( candouble && twocards && ( siderules & ( INSURED | DOUBLED | SURRENDERED ) ) == 0 ){
+				return comm;
 			}
-			return HMap.get(hashInput).decision2;
+			return Command.ofIndex( this.decision2[index] );
 		}
 		else if( comm == Command.SURRENDER ){
-			if( ph.getNumberOfCards() == 2 && !ph.getInsurance() && !ph.getDoublee() && !ph.getSurrender() && !ph.getSplit() ){
-				return HMap.get(hashInput).decision2;
-			}
-			return HMap.get(hashInput).decision2;
+			// Surrender is always played as decision2.
+			return Command.ofIndex( this.decision2[index] );
 		}
 		else{
 			return comm;
@@ -547,13 +687,7 @@ public class Strategies {
 	 * @return		1 if the card is a 5, -1 if it's an ace, 0 otherwise.
 	 */
 	public static final int decodeAceFiveCardValue( Card c ){
-		int cardValue = c.getCardValue();
-		if( cardValue == 5 )
-			return 1;
-		else if( cardValue == 11 )
-			return -1;
-		else
-			return 0;
+		return CountingSystem.ACEFIVE.getWeight( c.getCountIndex() );
 	}
 		
 	/**
@@ -564,23 +698,31 @@ public class Strategies {
 	 * @param bet			Value of the last bet done by the player.
 	 * @param maxbet		Maximum bet we can bet.
 	 * @param cardsplayed	Number of cards played till the moment by the player.
-	 * @return				Returns the correct command for the bet according to the Ace-Five rules.
+	 * @param balance		Balance of the player, the bet is never higher.
+	 * @return				Returns the value of the bet according to the Ace-Five rules,
+	 * 						or PREVIOUSBET to bet the same as before.
 	 */
-	public String determineAceFiveStrategy (int acefivecount , int minbet , int bet , int maxbet , int cardsplayed ) {
+	public int determineAceFiveStrategy (int acefivecount , int minbet , int bet , int maxbet , int cardsplayed , float balance ) {
 		
 		int newbet;
 		
-		if ( cardsplayed == 0)
-			return "b";
-		if ( acefivecount >= 2){
+		if ( cardsplayed == 0){
+			if ( bet <= balance )
+				return PREVIOUSBET;
+			newbet = bet;
+		}
+		else if ( acefivecount >= 2){
 			newbet = 2*bet;
 			if (newbet > maxbet)
 				newbet = maxbet;
 		}else {
 			newbet = minbet;
 		}
+		// A bet higher than the balance would be refused.
+		if ( newbet > balance )
+			newbet = (int) balance;
 				
-		return ("b "+newbet);
+		return newbet;
 	}
 
 	